@@ -1,5 +1,7 @@
 package mx.unam.ciencias.edd;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.NoSuchElementException;
 
 /**
@@ -215,18 +217,38 @@ public abstract class ArbolBinario<T> implements Iterable<T> {
      * @return una representación en cadena del árbol.
      */
     @Override public String toString() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            escribe(sb);
+        } catch (IOException ioe) {
+            /* Un StringBuilder nunca lanza IOException. */
+            throw new UncheckedIOException(ioe);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escribe la representación en cadena del árbol en la salida
+     * recibida, vértice por vértice, sin construirla completa en
+     * memoria. Lo escrito es idéntico a lo que regresa {@link
+     * #toString}.
+     * @param salida la salida donde se escribirá el árbol; puede
+     *        ser un {@link java.io.Writer} o un {@link StringBuilder},
+     *        por ejemplo.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public void escribe(Appendable salida) throws IOException {
         /* Necesitamos la profundidad para saber cuántas ramas puede
            haber. */
         if (elementos == 0)
-            return "";
+            return;
         int p = profundidad() + 1;
         /* true == dibuja rama, false == dibuja espacio. */
         boolean[] rama = new boolean[p];
         for (int i = 0; i < p; i++)
             /* Al inicio, no dibujamos ninguna rama. */
             rama[i] = false;
-        String s = aCadena(raiz, 0, rama);
-        return s.substring(0, s.length()-1);
+        aCadena(salida, raiz, 0, rama);
     }
 
     /**
@@ -244,68 +266,70 @@ public abstract class ArbolBinario<T> implements Iterable<T> {
         return n;
     }
 
-    /* Método auxiliar recursivo que hace todo el trabajo. */
-    private String aCadena(Vertice<T> vertice, int nivel, boolean[] rama) {
-        /* Primero que nada agregamos el vertice a la cadena. */
-        String s = vertice + "\n";
+    /* Método auxiliar recursivo que hace todo el trabajo. Cada
+       hijo se escribe en su propio renglón, así que no queda un
+       salto de línea al final. */
+    private void aCadena(Appendable s, Vertice<T> vertice, int nivel,
+                         boolean[] rama) throws IOException {
+        /* Primero que nada escribimos el vertice. */
+        s.append(String.valueOf(vertice));
         /* A partir de aquí, dibujamos rama en este nivel. */
         rama[nivel] = true;
         if (vertice.izquierdo != null && vertice.derecho != null) {
             /* Si hay vertice izquierdo Y derecho, dibujamos ramas o
              * espacios. */
-            s += espacios(nivel, rama);
+            espacios(s, nivel, rama);
             /* Dibujamos el conector al hijo izquierdo. */
-            s += "├─›";
+            s.append("├─›");
             /* Recursivamente dibujamos el hijo izquierdo y sus
                descendientes. */
-            s += aCadena(vertice.izquierdo, nivel+1, rama);
+            aCadena(s, vertice.izquierdo, nivel+1, rama);
             /* Dibujamos ramas o espacios. */
-            s += espacios(nivel, rama);
+            espacios(s, nivel, rama);
             /* Dibujamos el conector al hijo derecho. */
-            s += "└─»";
+            s.append("└─»");
             /* Como ya dibujamos el último hijo, ya no hay rama en
                este nivel. */
             rama[nivel] = false;
             /* Recursivamente dibujamos el hijo derecho y sus
                descendientes. */
-            s += aCadena(vertice.derecho, nivel+1, rama);
+            aCadena(s, vertice.derecho, nivel+1, rama);
         } else if (vertice.izquierdo != null) {
             /* Dibujamos ramas o espacios. */
-            s += espacios(nivel, rama);
+            espacios(s, nivel, rama);
             /* Dibujamos el conector al hijo izquierdo. */
-            s += "└─›";
+            s.append("└─›");
             /* Como ya dibujamos el último hijo, ya no hay rama en
                este nivel. */
             rama[nivel] = false;
             /* Recursivamente dibujamos el hijo izquierdo y sus
                descendientes. */
-            s += aCadena(vertice.izquierdo, nivel+1, rama);
+            aCadena(s, vertice.izquierdo, nivel+1, rama);
         } else if (vertice.derecho != null) {
             /* Dibujamos ramas o espacios. */
-            s += espacios(nivel, rama);
+            espacios(s, nivel, rama);
             /* Dibujamos el conector al hijo derecho. */
-            s += "└─»";
+            s.append("└─»");
             /* Como ya dibujamos el último hijo, ya no hay rama en
                este nivel. */
             rama[nivel] = false;
             /* Recursivamente dibujamos el hijo derecho y sus
                descendientes. */
-            s += aCadena(vertice.derecho, nivel+1, rama);
+            aCadena(s, vertice.derecho, nivel+1, rama);
         }
-        return s;
     }
 
-    /* Dibuja los espacios (incluidas las ramas, de ser necesarias)
-       que van antes de un vértice. */
-    private String espacios(int n, boolean[] rama) {
-        String s = "";
+    /* Dibuja el salto de línea y los espacios (incluidas las ramas,
+       de ser necesarias) que van antes de un vértice. */
+    private void espacios(Appendable s, int n, boolean[] rama)
+        throws IOException {
+        s.append('\n');
         for (int i = 0; i < n; i++)
             if (rama[i])
                 /* Rama: dibújala. */
-                s += "│  ";
+                s.append("│  ");
             else
                 /* No rama: dibuja espacio. */
-                s += "   ";
-        return s;
+                s.append("   ");
     }
 }
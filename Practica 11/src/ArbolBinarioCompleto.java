@@ -15,7 +15,8 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
     /* Clase privada para iteradores de árboles binarios
      * completos. */
     private class Iterador<T> implements Iterator<T> {
-        Cola<VerticeArbolBinario<T>> c = new Cola<VerticeArbolBinario<T>>();
+        Cola<VerticeArbolBinario<T>> c =
+            new Cola<VerticeArbolBinario<T>>(new ArregloCircular<VerticeArbolBinario<T>>());
 
         /* Constructor que recibe la raíz del árbol. */
         public Iterador(ArbolBinario<T>.Vertice<T> raiz) {
@@ -71,7 +72,7 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
             elementos++;
             return raiz;
         }
-        Cola<Vertice<T>> c = new Cola<Vertice<T>>();
+        Cola<Vertice<T>> c = new Cola<Vertice<T>>(new ArregloCircular<Vertice<T>>());
         Vertice<T> v = raiz, v1 = null;
         c.mete(v);
         while(!c.esVacia()){
@@ -107,7 +108,7 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
         
         VerticeArbolBinario<T> vAB = busca(elemento);
         Vertice<T> v = null, v1 = vertice(vAB);
-        Cola<Vertice<T>> c = new Cola<Vertice<T>>();
+        Cola<Vertice<T>> c = new Cola<Vertice<T>>(new ArregloCircular<Vertice<T>>());
         c.mete(raiz);
         while(!c.esVacia()){
           v = c.saca();
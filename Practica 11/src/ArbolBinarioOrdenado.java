@@ -25,7 +25,7 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
  private Pila<ArbolBinario<T>.Vertice<T>> pila; 
  /* Construye un iterador con el vértice recibido. */ 
  public Iterador(ArbolBinario<T>.Vertice<T> vertice) { 
-    pila = new Pila<ArbolBinario<T>.Vertice<T>>(); 
+    pila = new Pila<ArbolBinario<T>.Vertice<T>>(new ArregloCircular<ArbolBinario<T>.Vertice<T>>()); 
     meteIzq(vertice); 
  } 
  /* Nos dice si hay un siguiente elemento. */
@@ -0,0 +1,290 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase genérica para arreglos circulares crecientes.</p>
+ *
+ * <p>Un arreglo circular guarda sus elementos en un arreglo contiguo
+ * que se trata como si el final estuviera pegado al inicio, así que
+ * agregar y eliminar en ambos extremos toma tiempo constante
+ * amortizado sin crear ningún objeto: el arreglo sólo se duplica
+ * cuando se llena. Su capacidad siempre es potencia de dos, de forma
+ * que dar la vuelta es una operación de bits y no una
+ * comparación.</p>
+ *
+ * <p>Se puede usar como almacenamiento de {@link Cola} y {@link
+ * Pila}, en lugar de una {@link Lista}:</p>
+ *
+<pre>
+    Cola&lt;String&gt; c = new Cola&lt;String&gt;(new ArregloCircular&lt;String&gt;());
+</pre>
+ */
+public class ArregloCircular<T> implements DobleExtremo<T>, Iterable<T> {
+
+    /* Capacidad inicial predeterminada. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /* Los elementos. */
+    private Object[] elementos;
+    /* Posición en el arreglo del primer elemento. */
+    private int inicio;
+    /* Número de elementos. */
+    private int longitud;
+
+    /**
+     * Construye un arreglo circular vacío con la capacidad inicial
+     * predeterminada.
+     */
+    public ArregloCircular() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Construye un arreglo circular vacío con espacio para al menos
+     * el número de elementos recibido antes de tener que crecer.
+     * @param capacidad la capacidad inicial.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public ArregloCircular(int capacidad) {
+        if (capacidad < 0)
+            throw new IllegalArgumentException();
+        int n = 1;
+        while (n < capacidad)
+            n <<= 1;
+        elementos = new Object[n];
+    }
+
+    /* Regresa la posición en el arreglo del i-ésimo elemento. */
+    private int indice(int i) {
+        return (inicio + i) & (elementos.length - 1);
+    }
+
+    /* Regresa el elemento en la posición i del arreglo. */
+    @SuppressWarnings("unchecked") private T elemento(int i) {
+        return (T)elementos[i];
+    }
+
+    /* Duplica el arreglo si ya no caben más elementos. */
+    private void crece() {
+        asegura(longitud + 1);
+    }
+
+    /* Crece el arreglo, duplicándolo, hasta que quepan n elementos. */
+    private void asegura(int n) {
+        if (n <= elementos.length)
+            return;
+        int m = elementos.length;
+        while (m < n)
+            m <<= 1;
+        Object[] nuevo = new Object[m];
+        int k = Math.min(longitud, elementos.length - inicio);
+        System.arraycopy(elementos, inicio, nuevo, 0, k);
+        System.arraycopy(elementos, 0, nuevo, k, longitud - k);
+        elementos = nuevo;
+        inicio = 0;
+    }
+
+    /**
+     * Agrega un elemento al final del arreglo.
+     * @param elemento el elemento a agregar.
+     */
+    @Override public void agregaFinal(T elemento) {
+        crece();
+        elementos[indice(longitud++)] = elemento;
+    }
+
+    /**
+     * Agrega un elemento al inicio del arreglo.
+     * @param elemento el elemento a agregar.
+     */
+    @Override public void agregaInicio(T elemento) {
+        crece();
+        inicio = (inicio - 1) & (elementos.length - 1);
+        elementos[inicio] = elemento;
+        longitud++;
+    }
+
+    /**
+     * Elimina el primer elemento del arreglo y lo regresa.
+     * @return el primer elemento del arreglo.
+     * @throws NoSuchElementException si el arreglo es vacío.
+     */
+    @Override public T eliminaPrimero() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        T t = elemento(inicio);
+        elementos[inicio] = null;
+        inicio = indice(1);
+        longitud--;
+        return t;
+    }
+
+    /**
+     * Elimina el último elemento del arreglo y lo regresa.
+     * @return el último elemento del arreglo.
+     * @throws NoSuchElementException si el arreglo es vacío.
+     */
+    @Override public T eliminaUltimo() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        int i = indice(--longitud);
+        T t = elemento(i);
+        elementos[i] = null;
+        return t;
+    }
+
+    /**
+     * Regresa el primer elemento del arreglo.
+     * @return el primer elemento del arreglo.
+     * @throws NoSuchElementException si el arreglo es vacío.
+     */
+    @Override public T getPrimero() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        return elemento(inicio);
+    }
+
+    /**
+     * Regresa el último elemento del arreglo.
+     * @return el último elemento del arreglo.
+     * @throws NoSuchElementException si el arreglo es vacío.
+     */
+    @Override public T getUltimo() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        return elemento(indice(longitud - 1));
+    }
+
+    /**
+     * Agrega los elementos del arreglo recibido al final, en el orden
+     * en que aparecen, copiándolos en bloque.
+     * @param elementos los elementos a agregar.
+     */
+    @Override public void agregaArreglo(T[] elementos) {
+        int n = elementos.length;
+        asegura(longitud + n);
+        int i = indice(longitud);
+        int m = Math.min(n, this.elementos.length - i);
+        System.arraycopy(elementos, 0, this.elementos, i, m);
+        System.arraycopy(elementos, m, this.elementos, 0, n - m);
+        longitud += n;
+    }
+
+    /**
+     * Elimina hasta <tt>n</tt> elementos del inicio y los guarda en
+     * el arreglo recibido, del primero en adelante, copiándolos en
+     * bloque.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param n el número máximo de elementos a eliminar.
+     * @return el número de elementos eliminados.
+     * @throws IllegalArgumentException si <tt>n</tt> es negativo.
+     */
+    @Override public int eliminaPrimeros(T[] destino, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        n = Math.min(n, Math.min(destino.length, longitud));
+        int m = Math.min(n, elementos.length - inicio);
+        System.arraycopy(elementos, inicio, destino, 0, m);
+        System.arraycopy(elementos, 0, destino, m, n - m);
+        Arrays.fill(elementos, inicio, inicio + m, null);
+        Arrays.fill(elementos, 0, n - m, null);
+        inicio = indice(n);
+        longitud -= n;
+        return n;
+    }
+
+    /**
+     * Elimina hasta <tt>n</tt> elementos del final y los guarda en el
+     * arreglo recibido, del último hacia atrás.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param n el número máximo de elementos a eliminar.
+     * @return el número de elementos eliminados.
+     * @throws IllegalArgumentException si <tt>n</tt> es negativo.
+     */
+    @Override public int eliminaUltimos(T[] destino, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        n = Math.min(n, Math.min(destino.length, longitud));
+        for (int i = 0; i < n; i++) {
+            int j = indice(--longitud);
+            destino[i] = elemento(j);
+            elementos[j] = null;
+        }
+        return n;
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento del arreglo, contando
+     * desde el primero.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento del arreglo.
+     * @throws ExcepcionIndiceInvalido si el índice recibido es
+     *         menor que cero, o mayor que el número de elementos
+     *         menos uno.
+     */
+    public T get(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido();
+        return elemento(indice(i));
+    }
+
+    /**
+     * Regresa el número de elementos en el arreglo.
+     * @return el número de elementos en el arreglo.
+     */
+    @Override public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Elimina todos los elementos del arreglo. La capacidad no
+     * cambia.
+     */
+    public void limpia() {
+        for (int i = 0; i < longitud; i++)
+            elementos[indice(i)] = null;
+        inicio = longitud = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena del arreglo.
+     * @return una representación en cadena del arreglo.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < longitud; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elementos[indice(i)]);
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Regresa un iterador para recorrer el arreglo del primero al
+     * último elemento.
+     * @return un iterador para recorrer el arreglo.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int siguiente;
+
+            @Override public boolean hasNext() {
+                return siguiente < longitud;
+            }
+
+            @Override public T next() {
+                if (siguiente >= longitud)
+                    throw new NoSuchElementException();
+                return elemento(indice(siguiente++));
+            }
+
+            @Override public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -1,15 +1,27 @@
 package mx.unam.ciencias.edd;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Clase para manipular arreglos genéricos.
  */
 public class Arreglos {
 
+    /* Tamaño predeterminado debajo del cual los ordenamientos en
+     * paralelo trabajan secuencialmente. */
+    private static final int UMBRAL_PARALELO = 1 << 13;
+    /* Tamaño debajo del cual QuickSort ordena por inserción. */
+    private static final int UMBRAL_INSERCION = 24;
+
     /* Intercambia los elementos i y j de un arreglo. */
-    private static <T extends Comparable<T>>
-                      void intercambia(T[] a, int i, int j) {
+    private static <T> void intercambia(T[] a, int i, int j) {
         if (i == j)
             return;
         T t1 = a[j];
@@ -18,52 +30,549 @@ public class Arreglos {
         a[i] = t1;
     }
 
+    /* Ordena a[ini..fin] por inserción binaria, suponiendo que
+     * a[ini..ordenado-1] ya está ordenado. Cada elemento se inserta
+     * después de los iguales a él, así que es estable. */
+    private static <T> void insercion(T[] a, int ini, int fin, int ordenado,
+                                      Comparator<? super T> comparador) {
+        for (int i = Math.max(ordenado, ini + 1); i <= fin; i++) {
+            T t = a[i];
+            int izq = ini, der = i;
+            while (izq < der) {
+                int m = (izq + der) >>> 1;
+                if (comparador.compare(t, a[m]) < 0)
+                    der = m;
+                else
+                    izq = m + 1;
+            }
+            System.arraycopy(a, izq, a, izq + 1, i - izq);
+            a[izq] = t;
+        }
+    }
+
+    /* Ordena a[ini..fin] por inserción binaria. */
+    private static <T> void insercion(T[] a, int ini, int fin,
+                                      Comparator<? super T> comparador) {
+        insercion(a, ini, fin, ini + 1, comparador);
+    }
+
+    /* Baja el elemento i del montículo de máximos que empieza en ini
+     * y tiene n elementos. */
+    private static <T> void acomodaAbajo(T[] a, int ini, int i, int n,
+                                         Comparator<? super T> comparador) {
+        T t = a[ini + i];
+        while (2 * i + 1 < n) {
+            int h = 2 * i + 1;
+            if (h + 1 < n &&
+                comparador.compare(a[ini + h + 1], a[ini + h]) > 0)
+                h++;
+            if (comparador.compare(a[ini + h], t) <= 0)
+                break;
+            a[ini + i] = a[ini + h];
+            i = h;
+        }
+        a[ini + i] = t;
+    }
+
+    /* Ordena a[ini..fin] con HeapSort; garantiza O(n log n) cuando
+     * QuickSort se degenera. */
+    private static <T> void heapSort(T[] a, int ini, int fin,
+                                     Comparator<? super T> comparador) {
+        int n = fin - ini + 1;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            acomodaAbajo(a, ini, i, n, comparador);
+        for (int k = n - 1; k > 0; k--) {
+            intercambia(a, ini, ini + k);
+            acomodaAbajo(a, ini, 0, k, comparador);
+        }
+    }
+
+    /* Parte a[ini..fin] alrededor de dos pivotes p <= q, escogidos
+     * como el segundo y cuarto de una muestra ordenada de cinco
+     * elementos. Regresa los índices finales de p y q: a la
+     * izquierda de p quedan los menores que p, a la derecha de q los
+     * mayores que q, y entre ellos el resto. */
+    private static <T> int[] particiona(T[] a, int ini, int fin,
+                                        Comparator<? super T> comparador) {
+        int s = (fin - ini + 1) / 6;
+        int e3 = (ini + fin) >>> 1;
+        int e2 = e3 - s, e1 = e2 - s, e4 = e3 + s, e5 = e4 + s;
+        int[] m = { e1, e2, e3, e4, e5 };
+        for (int i = 1; i < 5; i++)
+            for (int j = i; j > 0 &&
+                     comparador.compare(a[m[j]], a[m[j-1]]) < 0; j--)
+                intercambia(a, m[j], m[j-1]);
+        intercambia(a, ini, e2);
+        intercambia(a, fin, e4);
+        T p = a[ini], q = a[fin];
+        int menores = ini + 1, mayores = fin - 1;
+        for (int k = menores; k <= mayores; k++) {
+            if (comparador.compare(a[k], p) < 0) {
+                intercambia(a, k, menores++);
+            } else if (comparador.compare(a[k], q) > 0) {
+                while (k < mayores && comparador.compare(a[mayores], q) > 0)
+                    mayores--;
+                intercambia(a, k, mayores--);
+                if (comparador.compare(a[k], p) < 0)
+                    intercambia(a, k, menores++);
+            }
+        }
+        intercambia(a, ini, --menores);
+        intercambia(a, fin, ++mayores);
+        return new int[] { menores, mayores };
+    }
+
+    /* Regresa la profundidad máxima de recursión de QuickSort antes
+     * de cambiar a HeapSort: 2 log n. */
+    private static int profundidad(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+    }
+
     /* Método auxiliar recursivo para quickSort. */
-    private static <T extends Comparable<T>>
-                      void quickSort(T[] a, int ini, int fin) {
-        if (fin - ini < 1)
+    private static <T> void quickSort(T[] a, int ini, int fin, int profundidad,
+                                      Comparator<? super T> comparador) {
+        if (fin - ini < UMBRAL_INSERCION) {
+            insercion(a, ini, fin, comparador);
             return;
-        int i = ini + 1, j = fin;
-        while (i < j)
-            if (a[i].compareTo(a[ini]) > 0 &&
-                a[j].compareTo(a[ini]) <= 0)
-                intercambia(a, i++, j--);
-            else if (a[i].compareTo(a[ini]) <= 0)
-                i++;
-            else
-                j--;
-        if (a[i].compareTo(a[ini]) > 0)
-            i--;
-        intercambia(a, ini, i);
-        quickSort(a, ini, i-1);
-        quickSort(a, i+1, fin);
+        }
+        if (profundidad == 0) {
+            heapSort(a, ini, fin, comparador);
+            return;
+        }
+        int[] pq = particiona(a, ini, fin, comparador);
+        quickSort(a, ini, pq[0]-1, profundidad-1, comparador);
+        quickSort(a, pq[1]+1, fin, profundidad-1, comparador);
+        /* Si los pivotes son iguales, el centro ya está ordenado. */
+        if (comparador.compare(a[pq[0]], a[pq[1]]) < 0)
+            quickSort(a, pq[0]+1, pq[1]-1, profundidad-1, comparador);
     }
 
     /**
-     * Ordena el arreglo recibido usando QickSort.
+     * Ordena el arreglo recibido usando QuickSort con dos pivotes.
+     * Los subarreglos pequeños se ordenan por inserción, y si la
+     * recursión pasa de 2 log <em>n</em> niveles se cambia a
+     * HeapSort, así que el tiempo es O(<em>n</em> log <em>n</em>)
+     * aun para arreglos ordenados o con muchos repetidos.
      * @param a un arreglo cuyos elementos son comparables.
      */
     public static <T extends Comparable<T>>
                      void quickSort(T[] a) {
-        quickSort(a, 0, a.length-1);
+        quickSort(a, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Ordena el arreglo recibido con el comparador recibido usando
+     * QuickSort con dos pivotes; vea {@link #quickSort(Comparable[])}.
+     * @param a el arreglo a ordenar.
+     * @param comparador el comparador para ordenar los elementos.
+     */
+    public static <T> void quickSort(T[] a, Comparator<? super T> comparador) {
+        quickSort(a, 0, a.length-1, profundidad(a.length), comparador);
+    }
+
+    /* Tarea para QuickSort en paralelo: parte el subarreglo y ordena
+     * las tres partes en paralelo, o lo ordena secuencialmente si es
+     * más chico que el umbral. */
+    private static class QuickSortParalelo<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private T[] a;
+        private int ini, fin, umbral, profundidad;
+        private Comparator<? super T> comparador;
+
+        public QuickSortParalelo(T[] a, int ini, int fin, int umbral,
+                                 int profundidad,
+                                 Comparator<? super T> comparador) {
+            this.a = a;
+            this.ini = ini;
+            this.fin = fin;
+            this.umbral = umbral;
+            this.profundidad = profundidad;
+            this.comparador = comparador;
+        }
+
+        @Override protected void compute() {
+            if (fin - ini < Math.max(umbral, UMBRAL_INSERCION) ||
+                profundidad == 0) {
+                quickSort(a, ini, fin, profundidad, comparador);
+                return;
+            }
+            int[] pq = particiona(a, ini, fin, comparador);
+            int d = profundidad - 1;
+            QuickSortParalelo<T> izq =
+                new QuickSortParalelo<T>(a, ini, pq[0]-1, umbral, d, comparador);
+            QuickSortParalelo<T> der =
+                new QuickSortParalelo<T>(a, pq[1]+1, fin, umbral, d, comparador);
+            if (comparador.compare(a[pq[0]], a[pq[1]]) < 0)
+                invokeAll(izq, der,
+                          new QuickSortParalelo<T>(a, pq[0]+1, pq[1]-1,
+                                                   umbral, d, comparador));
+            else
+                invokeAll(izq, der);
+        }
+    }
+
+    /**
+     * Ordena el arreglo recibido usando QuickSort en paralelo, en la
+     * alberca común de hilos y con el umbral predeterminado.
+     * @param a un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>>
+                     void quickSortParalelo(T[] a) {
+        quickSortParalelo(a, UMBRAL_PARALELO, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Ordena el arreglo recibido usando QuickSort en paralelo. Los
+     * subarreglos con menos elementos que el umbral se ordenan
+     * secuencialmente.
+     * @param a un arreglo cuyos elementos son comparables.
+     * @param umbral el tamaño a partir del cual se ordena en paralelo.
+     * @param alberca la alberca de hilos donde se ordena.
+     * @throws IllegalArgumentException si el umbral es menor que uno.
+     */
+    public static <T extends Comparable<T>>
+                     void quickSortParalelo(T[] a, int umbral,
+                                            ForkJoinPool alberca) {
+        quickSortParalelo(a, Comparator.<T>naturalOrder(), umbral, alberca);
     }
 
     /**
-     * Ordena el arreglo recibido usando InsertionSort.
+     * Ordena el arreglo recibido con el comparador recibido usando
+     * QuickSort en paralelo. Los subarreglos con menos elementos que
+     * el umbral se ordenan secuencialmente.
+     * @param a el arreglo a ordenar.
+     * @param comparador el comparador para ordenar los elementos.
+     * @param umbral el tamaño a partir del cual se ordena en paralelo.
+     * @param alberca la alberca de hilos donde se ordena.
+     * @throws IllegalArgumentException si el umbral es menor que uno.
+     */
+    public static <T> void quickSortParalelo(T[] a,
+                                             Comparator<? super T> comparador,
+                                             int umbral,
+                                             ForkJoinPool alberca) {
+        if (umbral < 1)
+            throw new IllegalArgumentException();
+        alberca.invoke(new QuickSortParalelo<T>(a, 0, a.length-1, umbral,
+                                                profundidad(a.length),
+                                                comparador));
+    }
+
+    /* Mezcla los subarreglos ordenados a[ini..m] y a[m+1..fin],
+     * usando aux como espacio auxiliar. */
+    private static <T> void mezcla(T[] a, T[] aux, int ini, int m, int fin,
+                                   Comparator<? super T> comparador) {
+        if (comparador.compare(a[m], a[m+1]) <= 0)
+            return;
+        System.arraycopy(a, ini, aux, ini, fin - ini + 1);
+        int i = ini, j = m + 1;
+        for (int k = ini; k <= fin; k++)
+            if (i > m)
+                a[k] = aux[j++];
+            else if (j > fin)
+                a[k] = aux[i++];
+            else if (comparador.compare(aux[j], aux[i]) < 0)
+                a[k] = aux[j++];
+            else
+                a[k] = aux[i++];
+    }
+
+    /* Método auxiliar recursivo para mergeSort. */
+    private static <T> void mergeSort(T[] a, T[] aux, int ini, int fin,
+                                      Comparator<? super T> comparador) {
+        if (fin - ini < 1)
+            return;
+        int m = (ini + fin) >>> 1;
+        mergeSort(a, aux, ini, m, comparador);
+        mergeSort(a, aux, m+1, fin, comparador);
+        mezcla(a, aux, ini, m, fin, comparador);
+    }
+
+    /* Tarea para MergeSort en paralelo: ordena ambas mitades en
+     * paralelo y las mezcla, o ordena secuencialmente si el
+     * subarreglo es más chico que el umbral. */
+    private static class MergeSortParalelo<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private T[] a, aux;
+        private int ini, fin, umbral;
+        private Comparator<? super T> comparador;
+
+        public MergeSortParalelo(T[] a, T[] aux, int ini, int fin,
+                                 int umbral,
+                                 Comparator<? super T> comparador) {
+            this.a = a;
+            this.aux = aux;
+            this.ini = ini;
+            this.fin = fin;
+            this.umbral = umbral;
+            this.comparador = comparador;
+        }
+
+        @Override protected void compute() {
+            if (fin - ini < umbral) {
+                mergeSort(a, aux, ini, fin, comparador);
+                return;
+            }
+            int m = (ini + fin) >>> 1;
+            invokeAll(new MergeSortParalelo<T>(a, aux, ini, m,
+                                               umbral, comparador),
+                      new MergeSortParalelo<T>(a, aux, m+1, fin,
+                                               umbral, comparador));
+            mezcla(a, aux, ini, m, fin, comparador);
+        }
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort en paralelo, en la
+     * alberca común de hilos y con el umbral predeterminado. El
+     * ordenamiento es estable.
+     * @param a un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>>
+                     void mergeSortParalelo(T[] a) {
+        mergeSortParalelo(a, Comparator.<T>naturalOrder(),
+                          UMBRAL_PARALELO, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Ordena el arreglo recibido con el comparador recibido usando
+     * MergeSort en paralelo. Los subarreglos con menos elementos que
+     * el umbral se ordenan secuencialmente. El ordenamiento es
+     * estable.
+     * @param a el arreglo a ordenar.
+     * @param comparador el comparador para ordenar los elementos.
+     * @param umbral el tamaño a partir del cual se ordena en paralelo.
+     * @param alberca la alberca de hilos donde se ordena.
+     * @throws IllegalArgumentException si el umbral es menor que uno.
+     */
+    public static <T> void mergeSortParalelo(T[] a,
+                                             Comparator<? super T> comparador,
+                                             int umbral,
+                                             ForkJoinPool alberca) {
+        if (umbral < 1)
+            throw new IllegalArgumentException();
+        if (a.length < 2)
+            return;
+        alberca.invoke(new MergeSortParalelo<T>(a, a.clone(), 0, a.length-1,
+                                                umbral, comparador));
+    }
+
+    /**
+     * Ordena el arreglo recibido usando InsertionSort. La posición de
+     * cada elemento se busca con búsqueda binaria, así que hace
+     * O(<em>n</em> log <em>n</em>) comparaciones; los movimientos son
+     * O(<em>n</em>) si el arreglo ya está casi ordenado. El
+     * ordenamiento es estable.
      * @param a un arreglo cuyos elementos son comparables.
      */
     public static <T extends Comparable<T>>
                      void insertionSort(T[] a) {
-        for (int i = 0; i < a.length; i++) {
-            int m = i;
-            for (int j = i+1; j < a.length; j++)
-                if (a[j].compareTo(a[m]) < 0)
-                    m = j;
-            if (m != i)
-                intercambia(a, i, m);
+        insertionSort(a, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Ordena el arreglo recibido con el comparador recibido usando
+     * InsertionSort; vea {@link #insertionSort(Comparable[])}.
+     * @param a el arreglo a ordenar.
+     * @param comparador el comparador para ordenar los elementos.
+     */
+    public static <T> void insertionSort(T[] a,
+                                         Comparator<? super T> comparador) {
+        insercion(a, 0, a.length-1, comparador);
+    }
+
+    /* Longitud mínima de las corridas de ordenaEstable. */
+    private static final int CORRIDA_MINIMA = 32;
+
+    /* Regresa la longitud mínima de corrida para n elementos: un
+     * número entre CORRIDA_MINIMA/2 y CORRIDA_MINIMA tal que n entre
+     * él es una potencia de dos o poco menos, para que las mezclas
+     * queden balanceadas. */
+    private static int corridaMinima(int n) {
+        int r = 0;
+        while (n >= CORRIDA_MINIMA) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /* Pila de las corridas pendientes de ordenaEstable, con sus
+     * inicios y longitudes. Decide qué corridas adyacentes mezclar
+     * para que sus longitudes queden balanceadas; las versiones de
+     * ordenaEstable para cada tipo de arreglo sólo dicen cómo mezclar
+     * dos corridas. */
+    private static abstract class PilaCorridas {
+
+        /* Los inicios de las corridas. */
+        private int[] inicios = new int[64];
+        /* Las longitudes de las corridas. */
+        private int[] longitudes = new int[64];
+        /* El número de corridas en la pila. */
+        private int pila;
+
+        /* Mezcla las corridas adyacentes a[ini..m-1] y
+         * a[m..fin-1]. */
+        protected abstract void mezcla(int ini, int m, int fin);
+
+        /* Agrega la corrida a[ini..fin-1] a la pila, y mezcla hasta
+         * que las longitudes, de la cima hacia abajo, crezcan al
+         * menos como Fibonacci. */
+        public void agrega(int ini, int fin) {
+            inicios[pila] = ini;
+            longitudes[pila++] = fin - ini;
+            while (pila > 1) {
+                int k = pila - 2;
+                if ((k > 0 &&
+                     longitudes[k-1] <= longitudes[k] + longitudes[k+1]) ||
+                    (k > 1 &&
+                     longitudes[k-2] <= longitudes[k-1] + longitudes[k])) {
+                    if (longitudes[k-1] < longitudes[k+1])
+                        k--;
+                } else if (longitudes[k] > longitudes[k+1]) {
+                    break;
+                }
+                mezclaPila(k);
+            }
+        }
+
+        /* Mezcla todas las corridas pendientes en una sola. */
+        public void termina() {
+            while (pila > 1)
+                mezclaPila(pila - 2);
+        }
+
+        /* Mezcla las corridas k y k+1 de la pila. */
+        private void mezclaPila(int k) {
+            int ini = inicios[k], m = ini + longitudes[k];
+            mezcla(ini, m, m + longitudes[k+1]);
+            longitudes[k] += longitudes[k+1];
+            if (k + 2 < pila) {
+                inicios[k+1] = inicios[k+2];
+                longitudes[k+1] = longitudes[k+2];
+            }
+            pila--;
         }
     }
 
+    /* Regresa el final (exclusivo) de la corrida que empieza en ini.
+     * Si la corrida es estrictamente descendente, la voltea; no se
+     * voltean corridas con elementos iguales, para ser estable. */
+    private static <T> int corrida(T[] a, int ini, int fin,
+                                   Comparator<? super T> comparador) {
+        int i = ini + 1;
+        if (i == fin)
+            return fin;
+        if (comparador.compare(a[i++], a[ini]) < 0) {
+            while (i < fin && comparador.compare(a[i], a[i-1]) < 0)
+                i++;
+            for (int j = ini, k = i - 1; j < k; j++, k--)
+                intercambia(a, j, k);
+        } else {
+            while (i < fin && comparador.compare(a[i], a[i-1]) >= 0)
+                i++;
+        }
+        return i;
+    }
+
+    /* Regresa el primer índice en a[ini..fin-1] cuyo elemento es
+     * mayor que e (si derecha) o mayor o igual que e (si no). */
+    private static <T> int busca(T[] a, T e, int ini, int fin,
+                                 boolean derecha,
+                                 Comparator<? super T> comparador) {
+        while (ini < fin) {
+            int m = (ini + fin) >>> 1;
+            int c = comparador.compare(a[m], e);
+            if (c < 0 || (derecha && c == 0))
+                ini = m + 1;
+            else
+                fin = m;
+        }
+        return ini;
+    }
+
+    /* Mezcla las corridas adyacentes a[ini..m-1] y a[m..fin-1] de
+     * forma estable, copiando a aux sólo la parte que se mueve de la
+     * corrida más chica. */
+    private static <T> void mezclaCorridas(T[] a, T[] aux,
+                                           int ini, int m, int fin,
+                                           Comparator<? super T> comparador) {
+        /* Los elementos al inicio de la izquierda menores o iguales
+         * al primero de la derecha, y los del final de la derecha
+         * mayores o iguales al último de la izquierda, ya están en
+         * su lugar. */
+        ini = busca(a, a[m], ini, m, true, comparador);
+        if (ini == m)
+            return;
+        fin = busca(a, a[m-1], m, fin, false, comparador);
+        if (m - ini <= fin - m) {
+            int n = m - ini;
+            System.arraycopy(a, ini, aux, 0, n);
+            int i = 0, j = m, k = ini;
+            while (i < n && j < fin)
+                a[k++] = comparador.compare(a[j], aux[i]) < 0 ?
+                    a[j++] : aux[i++];
+            System.arraycopy(aux, i, a, k, n - i);
+        } else {
+            int n = fin - m;
+            System.arraycopy(a, m, aux, 0, n);
+            int i = m - 1, j = n - 1, k = fin - 1;
+            while (i >= ini && j >= 0)
+                a[k--] = comparador.compare(aux[j], a[i]) < 0 ?
+                    a[i--] : aux[j--];
+            System.arraycopy(aux, 0, a, ini, j + 1);
+        }
+    }
+
+    /**
+     * Ordena el arreglo recibido de forma estable, con un algoritmo
+     * al estilo de TimSort: encuentra las corridas ya ordenadas (o
+     * estrictamente descendentes, que voltea), extiende las cortas
+     * con InsertionSort, y las mezcla manteniendo sus longitudes
+     * balanceadas. Toma tiempo O(<em>n</em>) si el arreglo ya está
+     * ordenado o se compone de pocas corridas, y O(<em>n</em> log
+     * <em>n</em>) en el peor caso.
+     * @param a un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>>
+                     void ordenaEstable(T[] a) {
+        ordenaEstable(a, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Ordena el arreglo recibido de forma estable con el comparador
+     * recibido; vea {@link #ordenaEstable(Comparable[])}.
+     * @param a el arreglo a ordenar.
+     * @param comparador el comparador para ordenar los elementos.
+     */
+    public static <T> void ordenaEstable(T[] a,
+                                         Comparator<? super T> comparador) {
+        int n = a.length;
+        if (n < 2)
+            return;
+        int minima = corridaMinima(n);
+        T[] aux = Arrays.copyOf(a, n / 2 + 1);
+        PilaCorridas pila = new PilaCorridas() {
+            @Override protected void mezcla(int ini, int m, int fin) {
+                mezclaCorridas(a, aux, ini, m, fin, comparador);
+            }
+        };
+        for (int ini = 0; ini < n; ) {
+            int fin = corrida(a, ini, n, comparador);
+            if (fin - ini < minima) {
+                int f = Math.min(ini + minima, n);
+                insercion(a, ini, f - 1, fin, comparador);
+                fin = f;
+            }
+            pila.agrega(ini, fin);
+            ini = fin;
+        }
+        pila.termina();
+    }
+
     /* Método auxiliar recursivo para busquedaBinaria. */
     private static <T extends Comparable<T>>
                       int busquedaBinaria(T[] a, T e, int i, int j) {
@@ -90,5 +599,954 @@ public class Arreglos {
                      int busquedaBinaria(T[] a, T e) {
         return busquedaBinaria(a, e, 0, a.length-1);
     }
-}
 
+    /* Intercambia los elementos i y j de un arreglo de int. */
+    private static void intercambia(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /* Ordena a[ini..fin] por inserción binaria, suponiendo que
+     * a[ini..ordenado-1] ya está ordenado. */
+    private static void insercion(int[] a, int ini, int fin, int ordenado) {
+        for (int i = Math.max(ordenado, ini + 1); i <= fin; i++) {
+            int t = a[i];
+            int izq = ini, der = i;
+            while (izq < der) {
+                int m = (izq + der) >>> 1;
+                if (t < a[m])
+                    der = m;
+                else
+                    izq = m + 1;
+            }
+            System.arraycopy(a, izq, a, izq + 1, i - izq);
+            a[izq] = t;
+        }
+    }
+
+    /* Baja el elemento i del montículo de máximos que empieza en ini
+     * y tiene n elementos. */
+    private static void acomodaAbajo(int[] a, int ini, int i, int n) {
+        int t = a[ini + i];
+        while (2 * i + 1 < n) {
+            int h = 2 * i + 1;
+            if (h + 1 < n && a[ini + h] < a[ini + h + 1])
+                h++;
+            if (t >= a[ini + h])
+                break;
+            a[ini + i] = a[ini + h];
+            i = h;
+        }
+        a[ini + i] = t;
+    }
+
+    /* Ordena a[ini..fin] con HeapSort. */
+    private static void heapSort(int[] a, int ini, int fin) {
+        int n = fin - ini + 1;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            acomodaAbajo(a, ini, i, n);
+        for (int k = n - 1; k > 0; k--) {
+            intercambia(a, ini, ini + k);
+            acomodaAbajo(a, ini, 0, k);
+        }
+    }
+
+    /* Parte a[ini..fin] alrededor de dos pivotes; vea la versión
+     * genérica. */
+    private static int[] particiona(int[] a, int ini, int fin) {
+        int s = (fin - ini + 1) / 6;
+        int e3 = (ini + fin) >>> 1;
+        int e2 = e3 - s, e1 = e2 - s, e4 = e3 + s, e5 = e4 + s;
+        int[] m = { e1, e2, e3, e4, e5 };
+        for (int i = 1; i < 5; i++)
+            for (int j = i; j > 0 && a[m[j]] < a[m[j-1]]; j--)
+                intercambia(a, m[j], m[j-1]);
+        intercambia(a, ini, e2);
+        intercambia(a, fin, e4);
+        int p = a[ini], q = a[fin];
+        int menores = ini + 1, mayores = fin - 1;
+        for (int k = menores; k <= mayores; k++) {
+            if (a[k] < p) {
+                intercambia(a, k, menores++);
+            } else if (q < a[k]) {
+                while (k < mayores && q < a[mayores])
+                    mayores--;
+                intercambia(a, k, mayores--);
+                if (a[k] < p)
+                    intercambia(a, k, menores++);
+            }
+        }
+        intercambia(a, ini, --menores);
+        intercambia(a, fin, ++mayores);
+        return new int[] { menores, mayores };
+    }
+
+    /* Método auxiliar recursivo para quickSort de int. */
+    private static void quickSort(int[] a, int ini, int fin, int profundidad) {
+        if (fin - ini < UMBRAL_INSERCION) {
+            insercion(a, ini, fin, ini + 1);
+            return;
+        }
+        if (profundidad == 0) {
+            heapSort(a, ini, fin);
+            return;
+        }
+        int[] pq = particiona(a, ini, fin);
+        quickSort(a, ini, pq[0]-1, profundidad-1);
+        quickSort(a, pq[1]+1, fin, profundidad-1);
+        if (a[pq[0]] < a[pq[1]])
+            quickSort(a, pq[0]+1, pq[1]-1, profundidad-1);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>int</tt> recibido usando QuickSort con
+     * dos pivotes; vea {@link #quickSort(Comparable[])}.
+     * @param a el arreglo a ordenar.
+     */
+    public static void quickSort(int[] a) {
+        quickSort(a, 0, a.length-1, profundidad(a.length));
+    }
+
+    /* Regresa el final (exclusivo) de la corrida que empieza en ini,
+     * volteándola si es estrictamente descendente. */
+    private static int corrida(int[] a, int ini, int fin) {
+        int i = ini + 1;
+        if (i == fin)
+            return fin;
+        if (a[i++] < a[ini]) {
+            while (i < fin && a[i] < a[i-1])
+                i++;
+            for (int j = ini, k = i - 1; j < k; j++, k--)
+                intercambia(a, j, k);
+        } else {
+            while (i < fin && a[i] >= a[i-1])
+                i++;
+        }
+        return i;
+    }
+
+    /* Regresa el primer índice en a[ini..fin-1] cuyo elemento es
+     * mayor que e (si derecha) o mayor o igual que e (si no). */
+    private static int busca(int[] a, int e, int ini, int fin,
+                             boolean derecha) {
+        while (ini < fin) {
+            int m = (ini + fin) >>> 1;
+            if (a[m] < e || (derecha && a[m] == e))
+                ini = m + 1;
+            else
+                fin = m;
+        }
+        return ini;
+    }
+
+    /* Mezcla las corridas adyacentes a[ini..m-1] y a[m..fin-1];
+     * vea la versión genérica. */
+    private static void mezclaCorridas(int[] a, int[] aux,
+                                       int ini, int m, int fin) {
+        ini = busca(a, a[m], ini, m, true);
+        if (ini == m)
+            return;
+        fin = busca(a, a[m-1], m, fin, false);
+        if (m - ini <= fin - m) {
+            int n = m - ini;
+            System.arraycopy(a, ini, aux, 0, n);
+            int i = 0, j = m, k = ini;
+            while (i < n && j < fin)
+                a[k++] = a[j] < aux[i] ? a[j++] : aux[i++];
+            System.arraycopy(aux, i, a, k, n - i);
+        } else {
+            int n = fin - m;
+            System.arraycopy(a, m, aux, 0, n);
+            int i = m - 1, j = n - 1, k = fin - 1;
+            while (i >= ini && j >= 0)
+                a[k--] = aux[j] < a[i] ? a[i--] : aux[j--];
+            System.arraycopy(aux, 0, a, ini, j + 1);
+        }
+    }
+
+    /* Ordena a[ini..fin-1] de forma estable; vea la versión
+     * genérica. */
+    private static void ordenaEstable(int[] a, int ini, int fin) {
+        if (fin - ini < 2)
+            return;
+        int minima = corridaMinima(fin - ini);
+        int[] aux = new int[(fin - ini) / 2 + 1];
+        PilaCorridas pila = new PilaCorridas() {
+            @Override protected void mezcla(int i, int m, int f) {
+                mezclaCorridas(a, aux, i, m, f);
+            }
+        };
+        for (int i = ini; i < fin; ) {
+            int f = corrida(a, i, fin);
+            if (f - i < minima) {
+                int g = Math.min(i + minima, fin);
+                insercion(a, i, g - 1, f);
+                f = g;
+            }
+            pila.agrega(i, f);
+            i = f;
+        }
+        pila.termina();
+    }
+
+    /**
+     * Ordena el arreglo de <tt>int</tt> recibido de forma estable,
+     * con el mismo algoritmo al estilo de TimSort que {@link
+     * #ordenaEstable(Comparable[])}: toma tiempo O(<em>n</em>) si el
+     * arreglo ya está ordenado o se compone de pocas corridas.
+     * @param a el arreglo a ordenar.
+     */
+    public static void ordenaEstable(int[] a) {
+        ordenaEstable(a, 0, a.length);
+    }
+
+    /**
+     * Hace una búsqueda binaria del elemento en el arreglo ordenado
+     * de <tt>int</tt>. Regresa el índice del elemento en el arreglo,
+     * o -1 si no se encuentra.
+     * @param a el arreglo dónde buscar.
+     * @param e el elemento a buscar.
+     * @return el índice del elemento en el arreglo, o -1 si no se
+     * encuentra.
+     */
+    public static int busquedaBinaria(int[] a, int e) {
+        int i = 0, j = a.length - 1;
+        while (i <= j) {
+            int m = (i + j) >>> 1;
+            if (e < a[m])
+                j = m - 1;
+            else if (a[m] < e)
+                i = m + 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /* Intercambia los elementos i y j de un arreglo de long. */
+    private static void intercambia(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /* Ordena a[ini..fin] por inserción binaria, suponiendo que
+     * a[ini..ordenado-1] ya está ordenado. */
+    private static void insercion(long[] a, int ini, int fin, int ordenado) {
+        for (int i = Math.max(ordenado, ini + 1); i <= fin; i++) {
+            long t = a[i];
+            int izq = ini, der = i;
+            while (izq < der) {
+                int m = (izq + der) >>> 1;
+                if (t < a[m])
+                    der = m;
+                else
+                    izq = m + 1;
+            }
+            System.arraycopy(a, izq, a, izq + 1, i - izq);
+            a[izq] = t;
+        }
+    }
+
+    /* Baja el elemento i del montículo de máximos que empieza en ini
+     * y tiene n elementos. */
+    private static void acomodaAbajo(long[] a, int ini, int i, int n) {
+        long t = a[ini + i];
+        while (2 * i + 1 < n) {
+            int h = 2 * i + 1;
+            if (h + 1 < n && a[ini + h] < a[ini + h + 1])
+                h++;
+            if (t >= a[ini + h])
+                break;
+            a[ini + i] = a[ini + h];
+            i = h;
+        }
+        a[ini + i] = t;
+    }
+
+    /* Ordena a[ini..fin] con HeapSort. */
+    private static void heapSort(long[] a, int ini, int fin) {
+        int n = fin - ini + 1;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            acomodaAbajo(a, ini, i, n);
+        for (int k = n - 1; k > 0; k--) {
+            intercambia(a, ini, ini + k);
+            acomodaAbajo(a, ini, 0, k);
+        }
+    }
+
+    /* Parte a[ini..fin] alrededor de dos pivotes; vea la versión
+     * genérica. */
+    private static int[] particiona(long[] a, int ini, int fin) {
+        int s = (fin - ini + 1) / 6;
+        int e3 = (ini + fin) >>> 1;
+        int e2 = e3 - s, e1 = e2 - s, e4 = e3 + s, e5 = e4 + s;
+        int[] m = { e1, e2, e3, e4, e5 };
+        for (int i = 1; i < 5; i++)
+            for (int j = i; j > 0 && a[m[j]] < a[m[j-1]]; j--)
+                intercambia(a, m[j], m[j-1]);
+        intercambia(a, ini, e2);
+        intercambia(a, fin, e4);
+        long p = a[ini], q = a[fin];
+        int menores = ini + 1, mayores = fin - 1;
+        for (int k = menores; k <= mayores; k++) {
+            if (a[k] < p) {
+                intercambia(a, k, menores++);
+            } else if (q < a[k]) {
+                while (k < mayores && q < a[mayores])
+                    mayores--;
+                intercambia(a, k, mayores--);
+                if (a[k] < p)
+                    intercambia(a, k, menores++);
+            }
+        }
+        intercambia(a, ini, --menores);
+        intercambia(a, fin, ++mayores);
+        return new int[] { menores, mayores };
+    }
+
+    /* Método auxiliar recursivo para quickSort de long. */
+    private static void quickSort(long[] a, int ini, int fin, int profundidad) {
+        if (fin - ini < UMBRAL_INSERCION) {
+            insercion(a, ini, fin, ini + 1);
+            return;
+        }
+        if (profundidad == 0) {
+            heapSort(a, ini, fin);
+            return;
+        }
+        int[] pq = particiona(a, ini, fin);
+        quickSort(a, ini, pq[0]-1, profundidad-1);
+        quickSort(a, pq[1]+1, fin, profundidad-1);
+        if (a[pq[0]] < a[pq[1]])
+            quickSort(a, pq[0]+1, pq[1]-1, profundidad-1);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>long</tt> recibido usando QuickSort con
+     * dos pivotes; vea {@link #quickSort(Comparable[])}.
+     * @param a el arreglo a ordenar.
+     */
+    public static void quickSort(long[] a) {
+        quickSort(a, 0, a.length-1, profundidad(a.length));
+    }
+
+    /* Regresa el final (exclusivo) de la corrida que empieza en ini,
+     * volteándola si es estrictamente descendente. */
+    private static int corrida(long[] a, int ini, int fin) {
+        int i = ini + 1;
+        if (i == fin)
+            return fin;
+        if (a[i++] < a[ini]) {
+            while (i < fin && a[i] < a[i-1])
+                i++;
+            for (int j = ini, k = i - 1; j < k; j++, k--)
+                intercambia(a, j, k);
+        } else {
+            while (i < fin && a[i] >= a[i-1])
+                i++;
+        }
+        return i;
+    }
+
+    /* Regresa el primer índice en a[ini..fin-1] cuyo elemento es
+     * mayor que e (si derecha) o mayor o igual que e (si no). */
+    private static int busca(long[] a, long e, int ini, int fin,
+                             boolean derecha) {
+        while (ini < fin) {
+            int m = (ini + fin) >>> 1;
+            if (a[m] < e || (derecha && a[m] == e))
+                ini = m + 1;
+            else
+                fin = m;
+        }
+        return ini;
+    }
+
+    /* Mezcla las corridas adyacentes a[ini..m-1] y a[m..fin-1];
+     * vea la versión genérica. */
+    private static void mezclaCorridas(long[] a, long[] aux,
+                                       int ini, int m, int fin) {
+        ini = busca(a, a[m], ini, m, true);
+        if (ini == m)
+            return;
+        fin = busca(a, a[m-1], m, fin, false);
+        if (m - ini <= fin - m) {
+            int n = m - ini;
+            System.arraycopy(a, ini, aux, 0, n);
+            int i = 0, j = m, k = ini;
+            while (i < n && j < fin)
+                a[k++] = a[j] < aux[i] ? a[j++] : aux[i++];
+            System.arraycopy(aux, i, a, k, n - i);
+        } else {
+            int n = fin - m;
+            System.arraycopy(a, m, aux, 0, n);
+            int i = m - 1, j = n - 1, k = fin - 1;
+            while (i >= ini && j >= 0)
+                a[k--] = aux[j] < a[i] ? a[i--] : aux[j--];
+            System.arraycopy(aux, 0, a, ini, j + 1);
+        }
+    }
+
+    /* Ordena a[ini..fin-1] de forma estable; vea la versión
+     * genérica. */
+    private static void ordenaEstable(long[] a, int ini, int fin) {
+        if (fin - ini < 2)
+            return;
+        int minima = corridaMinima(fin - ini);
+        long[] aux = new long[(fin - ini) / 2 + 1];
+        PilaCorridas pila = new PilaCorridas() {
+            @Override protected void mezcla(int i, int m, int f) {
+                mezclaCorridas(a, aux, i, m, f);
+            }
+        };
+        for (int i = ini; i < fin; ) {
+            int f = corrida(a, i, fin);
+            if (f - i < minima) {
+                int g = Math.min(i + minima, fin);
+                insercion(a, i, g - 1, f);
+                f = g;
+            }
+            pila.agrega(i, f);
+            i = f;
+        }
+        pila.termina();
+    }
+
+    /**
+     * Ordena el arreglo de <tt>long</tt> recibido de forma estable,
+     * con el mismo algoritmo al estilo de TimSort que {@link
+     * #ordenaEstable(Comparable[])}: toma tiempo O(<em>n</em>) si el
+     * arreglo ya está ordenado o se compone de pocas corridas.
+     * @param a el arreglo a ordenar.
+     */
+    public static void ordenaEstable(long[] a) {
+        ordenaEstable(a, 0, a.length);
+    }
+
+    /**
+     * Hace una búsqueda binaria del elemento en el arreglo ordenado
+     * de <tt>long</tt>. Regresa el índice del elemento en el arreglo,
+     * o -1 si no se encuentra.
+     * @param a el arreglo dónde buscar.
+     * @param e el elemento a buscar.
+     * @return el índice del elemento en el arreglo, o -1 si no se
+     * encuentra.
+     */
+    public static int busquedaBinaria(long[] a, long e) {
+        int i = 0, j = a.length - 1;
+        while (i <= j) {
+            int m = (i + j) >>> 1;
+            if (e < a[m])
+                j = m - 1;
+            else if (a[m] < e)
+                i = m + 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /* Regresa la llave de x: un long que, comparado con los
+     * operadores, va en el mismo orden que x en el de {@link
+     * Double#compare}. Para los números que no son NaN se voltean los
+     * bits de magnitud de los negativos, así que la llave se puede
+     * regresar a x con la misma operación; a NaN le toca la llave
+     * máxima. */
+    private static long llave(double x) {
+        if (Double.isNaN(x))
+            return Long.MAX_VALUE;
+        long b = Double.doubleToRawLongBits(x);
+        return b ^ ((b >> 63) & Long.MAX_VALUE);
+    }
+
+    /* Pasa al final de a los elementos que son NaN, en el mismo
+     * orden, y guarda las llaves de los demás al final de llaves.
+     * Regresa el índice en llaves de la primera llave guardada, que
+     * es también el número de elementos NaN. */
+    private static int separaLlaves(double[] a, long[] llaves) {
+        int k = a.length, m = a.length;
+        for (int i = a.length - 1; i >= 0; i--)
+            if (Double.isNaN(a[i]))
+                a[--k] = a[i];
+            else
+                llaves[--m] = llave(a[i]);
+        return m;
+    }
+
+    /* Regresa el elemento que no es NaN cuya llave es k. */
+    private static double valor(long k) {
+        return Double.longBitsToDouble(k ^ ((k >> 63) & Long.MAX_VALUE));
+    }
+
+    /* Copia al inicio de a los elementos de las llaves a partir de
+     * llaves[m]. */
+    private static void juntaLlaves(double[] a, long[] llaves, int m) {
+        for (int i = m; i < a.length; i++)
+            a[i - m] = valor(llaves[i]);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>double</tt> recibido usando QuickSort con
+     * dos pivotes; vea {@link #quickSort(Comparable[])}. El orden es
+     * el de {@link Double#compare}: -0.0 va antes que 0.0, y NaN al
+     * final. Se ordenan llaves <tt>long</tt> con el mismo orden, en
+     * un arreglo auxiliar del tamaño de <tt>a</tt>.
+     * @param a el arreglo a ordenar.
+     */
+    public static void quickSort(double[] a) {
+        long[] llaves = new long[a.length];
+        int m = separaLlaves(a, llaves);
+        quickSort(llaves, m, a.length-1, profundidad(a.length - m));
+        juntaLlaves(a, llaves, m);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>double</tt> recibido de forma estable; vea
+     * {@link #ordenaEstable(Comparable[])}. El orden es el de {@link
+     * Double#compare}: -0.0 va antes que 0.0, y NaN al final, en el
+     * orden en que estaban. Se ordenan llaves <tt>long</tt> con el
+     * mismo orden, en un arreglo auxiliar del tamaño de <tt>a</tt>.
+     * @param a el arreglo a ordenar.
+     */
+    public static void ordenaEstable(double[] a) {
+        long[] llaves = new long[a.length];
+        int m = separaLlaves(a, llaves);
+        ordenaEstable(llaves, m, a.length);
+        juntaLlaves(a, llaves, m);
+    }
+
+    /**
+     * Hace una búsqueda binaria del elemento en el arreglo ordenado
+     * de <tt>double</tt>. Regresa el índice del elemento en el arreglo,
+     * o -1 si no se encuentra.
+     * Se usa el orden de {@link Double#compare}, así que se puede
+     * buscar NaN, y -0.0 y 0.0 son distintos.
+     * @param a el arreglo dónde buscar.
+     * @param e el elemento a buscar.
+     * @return el índice del elemento en el arreglo, o -1 si no se
+     * encuentra.
+     */
+    public static int busquedaBinaria(double[] a, double e) {
+        long k = llave(e);
+        int i = 0, j = a.length - 1;
+        while (i <= j) {
+            int m = (i + j) >>> 1;
+            long c = llave(a[m]);
+            if (k < c)
+                j = m - 1;
+            else if (c < k)
+                i = m + 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /* Regresa la llave de x: un int que, comparado con los
+     * operadores, va en el mismo orden que x en el de {@link
+     * Float#compare}. Para los números que no son NaN se voltean los
+     * bits de magnitud de los negativos, así que la llave se puede
+     * regresar a x con la misma operación; a NaN le toca la llave
+     * máxima. */
+    private static int llave(float x) {
+        if (Float.isNaN(x))
+            return Integer.MAX_VALUE;
+        int b = Float.floatToRawIntBits(x);
+        return b ^ ((b >> 31) & Integer.MAX_VALUE);
+    }
+
+    /* Pasa al final de a los elementos que son NaN, en el mismo
+     * orden, y guarda las llaves de los demás al final de llaves.
+     * Regresa el índice en llaves de la primera llave guardada, que
+     * es también el número de elementos NaN. */
+    private static int separaLlaves(float[] a, int[] llaves) {
+        int k = a.length, m = a.length;
+        for (int i = a.length - 1; i >= 0; i--)
+            if (Float.isNaN(a[i]))
+                a[--k] = a[i];
+            else
+                llaves[--m] = llave(a[i]);
+        return m;
+    }
+
+    /* Regresa el elemento que no es NaN cuya llave es k. */
+    private static float valor(int k) {
+        return Float.intBitsToFloat(k ^ ((k >> 31) & Integer.MAX_VALUE));
+    }
+
+    /* Copia al inicio de a los elementos de las llaves a partir de
+     * llaves[m]. */
+    private static void juntaLlaves(float[] a, int[] llaves, int m) {
+        for (int i = m; i < a.length; i++)
+            a[i - m] = valor(llaves[i]);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>float</tt> recibido usando QuickSort con
+     * dos pivotes; vea {@link #quickSort(Comparable[])}. El orden es
+     * el de {@link Float#compare}: -0.0 va antes que 0.0, y NaN al
+     * final. Se ordenan llaves <tt>int</tt> con el mismo orden, en
+     * un arreglo auxiliar del tamaño de <tt>a</tt>.
+     * @param a el arreglo a ordenar.
+     */
+    public static void quickSort(float[] a) {
+        int[] llaves = new int[a.length];
+        int m = separaLlaves(a, llaves);
+        quickSort(llaves, m, a.length-1, profundidad(a.length - m));
+        juntaLlaves(a, llaves, m);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>float</tt> recibido de forma estable; vea
+     * {@link #ordenaEstable(Comparable[])}. El orden es el de {@link
+     * Float#compare}: -0.0 va antes que 0.0, y NaN al final, en el
+     * orden en que estaban. Se ordenan llaves <tt>int</tt> con el
+     * mismo orden, en un arreglo auxiliar del tamaño de <tt>a</tt>.
+     * @param a el arreglo a ordenar.
+     */
+    public static void ordenaEstable(float[] a) {
+        int[] llaves = new int[a.length];
+        int m = separaLlaves(a, llaves);
+        ordenaEstable(llaves, m, a.length);
+        juntaLlaves(a, llaves, m);
+    }
+
+    /**
+     * Hace una búsqueda binaria del elemento en el arreglo ordenado
+     * de <tt>float</tt>. Regresa el índice del elemento en el arreglo,
+     * o -1 si no se encuentra.
+     * Se usa el orden de {@link Float#compare}, así que se puede
+     * buscar NaN, y -0.0 y 0.0 son distintos.
+     * @param a el arreglo dónde buscar.
+     * @param e el elemento a buscar.
+     * @return el índice del elemento en el arreglo, o -1 si no se
+     * encuentra.
+     */
+    public static int busquedaBinaria(float[] a, float e) {
+        int k = llave(e);
+        int i = 0, j = a.length - 1;
+        while (i <= j) {
+            int m = (i + j) >>> 1;
+            int c = llave(a[m]);
+            if (k < c)
+                j = m - 1;
+            else if (c < k)
+                i = m + 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /* Número de cubetas de los ordenamientos por residuos: un
+     * dígito es un byte. */
+    private static final int CUBETAS = 256;
+
+    /* Tarea para calcular en paralelo los histogramas de todos los
+     * dígitos de llaves enteras: parte el arreglo, calcula los de
+     * cada parte y los suma. */
+    private static class HistogramaInt extends RecursiveTask<int[][]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private int[] llaves;
+        private int ini, fin;
+
+        public HistogramaInt(int[] llaves, int ini, int fin) {
+            this.llaves = llaves;
+            this.ini = ini;
+            this.fin = fin;
+        }
+
+        @Override protected int[][] compute() {
+            if (fin - ini <= UMBRAL_PARALELO) {
+                int[][] h = new int[4][CUBETAS];
+                for (int i = ini; i < fin; i++) {
+                    int k = llaves[i] ^ Integer.MIN_VALUE;
+                    h[0][k & 0xff]++;
+                    h[1][(k >>> 8) & 0xff]++;
+                    h[2][(k >>> 16) & 0xff]++;
+                    h[3][k >>> 24]++;
+                }
+                return h;
+            }
+            int m = (ini + fin) >>> 1;
+            HistogramaInt izq = new HistogramaInt(llaves, ini, m);
+            izq.fork();
+            int[][] h = new HistogramaInt(llaves, m, fin).compute();
+            return suma(h, izq.join());
+        }
+    }
+
+    /* Tarea para calcular en paralelo los histogramas de todos los
+     * dígitos de llaves largas. */
+    private static class HistogramaLong extends RecursiveTask<int[][]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private long[] llaves;
+        private int ini, fin;
+
+        public HistogramaLong(long[] llaves, int ini, int fin) {
+            this.llaves = llaves;
+            this.ini = ini;
+            this.fin = fin;
+        }
+
+        @Override protected int[][] compute() {
+            if (fin - ini <= UMBRAL_PARALELO) {
+                int[][] h = new int[8][CUBETAS];
+                for (int i = ini; i < fin; i++) {
+                    long k = llaves[i] ^ Long.MIN_VALUE;
+                    for (int d = 0; d < 8; d++)
+                        h[d][(int)(k >>> (8 * d)) & 0xff]++;
+                }
+                return h;
+            }
+            int m = (ini + fin) >>> 1;
+            HistogramaLong izq = new HistogramaLong(llaves, ini, m);
+            izq.fork();
+            int[][] h = new HistogramaLong(llaves, m, fin).compute();
+            return suma(h, izq.join());
+        }
+    }
+
+    /* Suma el histograma g al histograma h y regresa h. */
+    private static int[][] suma(int[][] h, int[][] g) {
+        for (int d = 0; d < h.length; d++)
+            for (int b = 0; b < CUBETAS; b++)
+                h[d][b] += g[d][b];
+        return h;
+    }
+
+    /* Convierte las cuentas de un histograma en las posiciones
+     * iniciales de cada cubeta. Regresa false si todas las llaves
+     * caen en la misma cubeta, y entonces no hay que mover nada. */
+    private static boolean posiciones(int[] cuentas, int n) {
+        int s = 0;
+        for (int b = 0; b < CUBETAS; b++) {
+            if (cuentas[b] == n)
+                return false;
+            int c = cuentas[b];
+            cuentas[b] = s;
+            s += c;
+        }
+        return true;
+    }
+
+    /* Ordena por residuos, del dígito menos significativo al más
+     * significativo, las llaves enteras y, si no es nulo, el arreglo
+     * de elementos con la misma permutación. */
+    private static <T> void residuos(int[] llaves, T[] elementos) {
+        int n = llaves.length;
+        if (n < 2)
+            return;
+        int[][] h = n > UMBRAL_PARALELO ?
+            ForkJoinPool.commonPool().invoke(new HistogramaInt(llaves, 0, n)) :
+            new HistogramaInt(llaves, 0, n).compute();
+        int[] l = llaves, laux = new int[n];
+        T[] e = elementos, eaux = elementos == null ? null : elementos.clone();
+        for (int d = 0; d < 4; d++) {
+            int[] c = h[d];
+            if (!posiciones(c, n))
+                continue;
+            for (int i = 0; i < n; i++) {
+                int j = c[((l[i] ^ Integer.MIN_VALUE) >>> (8 * d)) & 0xff]++;
+                laux[j] = l[i];
+                if (e != null)
+                    eaux[j] = e[i];
+            }
+            int[] lt = l; l = laux; laux = lt;
+            T[] et = e; e = eaux; eaux = et;
+        }
+        if (l != llaves) {
+            System.arraycopy(l, 0, llaves, 0, n);
+            if (e != null)
+                System.arraycopy(e, 0, elementos, 0, n);
+        }
+    }
+
+    /* Ordena por residuos las llaves largas y, si no es nulo, el
+     * arreglo de elementos con la misma permutación. */
+    private static <T> void residuos(long[] llaves, T[] elementos) {
+        int n = llaves.length;
+        if (n < 2)
+            return;
+        int[][] h = n > UMBRAL_PARALELO ?
+            ForkJoinPool.commonPool().invoke(new HistogramaLong(llaves, 0, n)) :
+            new HistogramaLong(llaves, 0, n).compute();
+        long[] l = llaves, laux = new long[n];
+        T[] e = elementos, eaux = elementos == null ? null : elementos.clone();
+        for (int d = 0; d < 8; d++) {
+            int[] c = h[d];
+            if (!posiciones(c, n))
+                continue;
+            for (int i = 0; i < n; i++) {
+                int j = c[(int)((l[i] ^ Long.MIN_VALUE) >>> (8 * d)) & 0xff]++;
+                laux[j] = l[i];
+                if (e != null)
+                    eaux[j] = e[i];
+            }
+            long[] lt = l; l = laux; laux = lt;
+            T[] et = e; e = eaux; eaux = et;
+        }
+        if (l != llaves) {
+            System.arraycopy(l, 0, llaves, 0, n);
+            if (e != null)
+                System.arraycopy(e, 0, elementos, 0, n);
+        }
+    }
+
+    /**
+     * Ordena el arreglo de <tt>int</tt> recibido por residuos (LSD),
+     * un byte a la vez, en tiempo O(<em>n</em>) y sin comparaciones.
+     * Los bytes en los que todos los elementos coinciden no se
+     * procesan. Con arreglos grandes, los histogramas se calculan en
+     * paralelo en la alberca común de hilos.
+     * @param a el arreglo a ordenar.
+     */
+    public static void radixSort(int[] a) {
+        residuos(a, (Object[])null);
+    }
+
+    /**
+     * Ordena el arreglo de <tt>long</tt> recibido por residuos (LSD);
+     * vea {@link #radixSort(int[])}.
+     * @param a el arreglo a ordenar.
+     */
+    public static void radixSort(long[] a) {
+        residuos(a, (Object[])null);
+    }
+
+    /**
+     * Ordena el arreglo recibido por residuos (LSD), de acuerdo a
+     * la llave entera de cada elemento; vea {@link
+     * #radixSort(int[])}. Las llaves se calculan una sola vez por
+     * elemento. El ordenamiento es estable.
+     * @param a el arreglo a ordenar.
+     * @param llave la función que regresa la llave de un elemento.
+     */
+    public static <T> void radixSortEntero(T[] a,
+                                           ToIntFunction<? super T> llave) {
+        int[] llaves = new int[a.length];
+        for (int i = 0; i < a.length; i++)
+            llaves[i] = llave.applyAsInt(a[i]);
+        residuos(llaves, a);
+    }
+
+    /**
+     * Ordena el arreglo recibido por residuos (LSD), de acuerdo a
+     * la llave larga de cada elemento; vea {@link
+     * #radixSortEntero}. El ordenamiento es estable.
+     * @param a el arreglo a ordenar.
+     * @param llave la función que regresa la llave de un elemento.
+     */
+    public static <T> void radixSortLargo(T[] a,
+                                          ToLongFunction<? super T> llave) {
+        long[] llaves = new long[a.length];
+        for (int i = 0; i < a.length; i++)
+            llaves[i] = llave.applyAsLong(a[i]);
+        residuos(llaves, a);
+    }
+
+    /* Regresa el dígito d de la cadena, o -1 si la cadena es más
+     * corta. Cada carácter aporta dos dígitos, primero su byte
+     * alto. */
+    private static int digito(String s, int d) {
+        if (d >> 1 >= s.length())
+            return -1;
+        char c = s.charAt(d >> 1);
+        return (d & 1) == 0 ? c >>> 8 : c & 0xff;
+    }
+
+    /* Regresa el dígito d del arreglo de bytes, sin signo, o -1 si
+     * el arreglo es más corto. */
+    private static int digito(byte[] s, int d) {
+        return d < s.length ? s[d] & 0xff : -1;
+    }
+
+    /* Ordena a[ini..fin-1] por residuos (MSD) a partir del dígito d,
+     * suponiendo que todas las cadenas coinciden en los dígitos
+     * anteriores. */
+    private static void residuos(String[] a, String[] aux,
+                                 int ini, int fin, int d) {
+        while (fin - ini > UMBRAL_INSERCION) {
+            int[] c = new int[CUBETAS + 2];
+            for (int i = ini; i < fin; i++)
+                c[digito(a[i], d) + 2]++;
+            /* Si todas coinciden en este dígito, pasa al siguiente
+             * sin mover nada. */
+            if (c[1] == 0 && mismoDigito(c, fin - ini)) {
+                d++;
+                continue;
+            }
+            for (int b = 0; b <= CUBETAS; b++)
+                c[b+1] += c[b];
+            for (int i = ini; i < fin; i++)
+                aux[c[digito(a[i], d) + 1]++] = a[i];
+            System.arraycopy(aux, 0, a, ini, fin - ini);
+            for (int b = 1; b <= CUBETAS; b++)
+                residuos(a, aux, ini + c[b-1], ini + c[b], d + 1);
+            return;
+        }
+        insercion(a, ini, fin - 1, Comparator.<String>naturalOrder());
+    }
+
+    /* Ordena a[ini..fin-1] por residuos (MSD) a partir del dígito d,
+     * suponiendo que todos los arreglos coinciden en los dígitos
+     * anteriores. */
+    private static void residuos(byte[][] a, byte[][] aux,
+                                 int ini, int fin, int d) {
+        while (fin - ini > UMBRAL_INSERCION) {
+            int[] c = new int[CUBETAS + 2];
+            for (int i = ini; i < fin; i++)
+                c[digito(a[i], d) + 2]++;
+            if (c[1] == 0 && mismoDigito(c, fin - ini)) {
+                d++;
+                continue;
+            }
+            for (int b = 0; b <= CUBETAS; b++)
+                c[b+1] += c[b];
+            for (int i = ini; i < fin; i++)
+                aux[c[digito(a[i], d) + 1]++] = a[i];
+            System.arraycopy(aux, 0, a, ini, fin - ini);
+            for (int b = 1; b <= CUBETAS; b++)
+                residuos(a, aux, ini + c[b-1], ini + c[b], d + 1);
+            return;
+        }
+        insercion(a, ini, fin - 1, Arrays::compareUnsigned);
+    }
+
+    /* Nos dice si las n cuentas están en una sola cubeta. */
+    private static boolean mismoDigito(int[] c, int n) {
+        for (int b = 2; b < c.length; b++)
+            if (c[b] != 0)
+                return c[b] == n;
+        return false;
+    }
+
+    /**
+     * Ordena el arreglo de cadenas recibido por residuos (MSD), un
+     * byte a la vez desde el principio de las cadenas. Sólo se
+     * examinan los caracteres necesarios para distinguir cada
+     * cadena, así que el tiempo es lineal en el total de esos
+     * caracteres. El orden es el de {@link String#compareTo}.
+     * @param a el arreglo a ordenar.
+     */
+    public static void radixSort(String[] a) {
+        residuos(a, new String[a.length], 0, a.length, 0);
+    }
+
+    /**
+     * Ordena el arreglo de arreglos de bytes recibido por residuos
+     * (MSD); vea {@link #radixSort(String[])}. El orden es
+     * lexicográfico con bytes sin signo, el de {@link
+     * Arrays#compareUnsigned(byte[],byte[])}.
+     * @param a el arreglo a ordenar.
+     */
+    public static void radixSort(byte[][] a) {
+        residuos(a, new byte[a.length][], 0, a.length, 0);
+    }
+}
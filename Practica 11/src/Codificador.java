@@ -0,0 +1,41 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interfaz para convertir elementos en bytes y de regreso, para las
+ * estructuras que guardan sus elementos fuera de la memoria, como
+ * {@link ColaDesbordable}. Para todo elemento <tt>e</tt>,
+ * <tt>decodifica(codifica(e))</tt> debe ser igual a <tt>e</tt>.
+ */
+public interface Codificador<T> {
+
+    /**
+     * Codificador para cadenas, en UTF-8.
+     */
+    public static final Codificador<String> CADENAS =
+        new Codificador<String>() {
+            @Override public byte[] codifica(String elemento) {
+                return elemento.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override public String decodifica(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+
+    /**
+     * Convierte un elemento en bytes.
+     * @param elemento el elemento a convertir.
+     * @return los bytes del elemento.
+     */
+    public byte[] codifica(T elemento);
+
+    /**
+     * Convierte bytes generados por {@link #codifica} en el elemento
+     * original.
+     * @param bytes los bytes a convertir.
+     * @return el elemento correspondiente.
+     */
+    public T decodifica(byte[] bytes);
+}
@@ -1,9 +1,11 @@
 package mx.unam.ciencias.edd;
 
+import java.util.function.Consumer;
+
 /**
  * Clase para colas genéricas.
  */
-public class Cola<T> extends MeteSaca<T> {
+public class Cola<T> extends MeteSacaDobleExtremo<T> {
 
     /**
      * Construye una cola vacía.
@@ -12,6 +14,26 @@ public class Cola<T> extends MeteSaca<T> {
     	Cola<T> c = null;
     }
 
+    /**
+     * Construye una cola vacía que recicla hasta
+     * <tt>capacidadReserva</tt> nodos, para no generar basura al
+     * meter y sacar elementos continuamente.
+     * @param capacidadReserva el máximo número de nodos a reciclar.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public Cola(int capacidadReserva) {
+        super(capacidadReserva);
+    }
+
+    /**
+     * Construye una cola vacía que usa la estructura recibida como
+     * almacenamiento; por ejemplo, un {@link ArregloCircular}.
+     * @param almacen la estructura subyaciente, que debe estar vacía.
+     */
+    public Cola(DobleExtremo<T> almacen) {
+        super(almacen);
+    }
+
     /**
      * Elimina el elemento al frente de la cola y lo regresa.
      * @return el elemento al frente de la cola.
@@ -21,6 +43,44 @@ public class Cola<T> extends MeteSaca<T> {
         return lista.eliminaPrimero();
     }
 
+    /**
+     * Agrega todos los elementos del arreglo a la cola, en el orden en
+     * que aparecen en el arreglo, con una sola operación sobre la
+     * estructura subyaciente.
+     * @param elementos los elementos a agregar.
+     */
+    @Override public void meteTodos(T[] elementos) {
+        lista.agregaArreglo(elementos);
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos al frente de la cola y los guarda
+     * en el arreglo, en el orden en que salen, con una sola
+     * operación sobre la estructura subyaciente.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    @Override public int sacaHasta(T[] destino, int maximo) {
+        return lista.eliminaPrimeros(destino, maximo);
+    }
+
+    /**
+     * Saca todos los elementos de la cola, en el orden en que salen, y
+     * le aplica la acción recibida a cada uno.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
+     */
+    @Override public int drena(Consumer<? super T> accion) {
+        int n = 0;
+        while (lista.getLongitud() > 0) {
+            accion.accept(lista.eliminaPrimero());
+            n++;
+        }
+        return n;
+    }
+
     /**
      * Nos permite ver el elemento al inicio de la cola, sin sacarlo
      * de la misma.
@@ -0,0 +1,380 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * <p>Clase para colas acotadas bloqueantes.</p>
+ *
+ * <p>Además de las operaciones de {@link Cola}, que nunca esperan,
+ * la cola ofrece {@link #meteBloqueante} y {@link #sacaBloqueante},
+ * que esperan a que haya espacio o elementos, respectivamente. Como
+ * la capacidad es fija, un productor más rápido que su consumidor
+ * termina esperando en lugar de acumular elementos sin límite; así
+ * se pueden encadenar etapas de procesamiento con colas bloqueantes
+ * y la presión se propaga hacia atrás.</p>
+ *
+ * <p>La exclusión mutua se hace con un {@link ReentrantLock} y las
+ * esperas con sus {@link Condition}, no con <tt>synchronized</tt>
+ * ni {@link Object#wait}, para que un hilo virtual que espera se
+ * desmonte de su hilo portador en lugar de bloquearlo.</p>
+ *
+ * <p>La cola no acepta elementos nulos.</p>
+ */
+public class ColaBloqueante<T> extends Cola<T> {
+
+    /* Capacidad de la cola. */
+    private final int capacidad;
+    /* El candado que protege la cola. */
+    private final ReentrantLock candado;
+    /* Condición para esperar a que haya elementos. */
+    private final Condition noVacia;
+    /* Condición para esperar a que haya espacio. */
+    private final Condition noLlena;
+
+    /**
+     * Construye una cola bloqueante vacía.
+     * @param capacidad el número máximo de elementos en la cola.
+     * @throws IllegalArgumentException si la capacidad es menor que
+     *         uno.
+     */
+    public ColaBloqueante(int capacidad) {
+        super(new ArregloCircular<T>(capacidad));
+        if (capacidad < 1)
+            throw new IllegalArgumentException();
+        this.capacidad = capacidad;
+        candado = new ReentrantLock();
+        noVacia = candado.newCondition();
+        noLlena = candado.newCondition();
+    }
+
+    /* Mete el elemento; el candado debe estar tomado y debe haber
+     * espacio. */
+    private void encola(T elemento) {
+        lista.agregaFinal(elemento);
+        noVacia.signal();
+    }
+
+    /* Saca el primer elemento; el candado debe estar tomado y debe
+     * haber elementos. */
+    private T desencola() {
+        T t = lista.eliminaPrimero();
+        noLlena.signal();
+        return t;
+    }
+
+    /**
+     * Mete un elemento a la cola si hay espacio, sin esperar.
+     * @param elemento el elemento a meter.
+     * @return <tt>true</tt> si el elemento se metió, <tt>false</tt>
+     *         si la cola estaba llena.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public boolean ofrece(T elemento) {
+        if (elemento == null)
+            throw new NullPointerException();
+        candado.lock();
+        try {
+            if (lista.getLongitud() == capacidad)
+                return false;
+            encola(elemento);
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Mete un elemento a la cola, sin esperar.
+     * @param elemento el elemento a meter.
+     * @throws IllegalStateException si la cola está llena.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    @Override public void mete(T elemento) {
+        if (!ofrece(elemento))
+            throw new IllegalStateException();
+    }
+
+    /**
+     * Mete un elemento a la cola, esperando el tiempo que sea
+     * necesario a que haya espacio.
+     * @param elemento el elemento a meter.
+     * @throws InterruptedException si el hilo es interrumpido
+     *         mientras espera.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public void meteBloqueante(T elemento) throws InterruptedException {
+        if (elemento == null)
+            throw new NullPointerException();
+        candado.lockInterruptibly();
+        try {
+            while (lista.getLongitud() == capacidad)
+                noLlena.await();
+            encola(elemento);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Mete un elemento a la cola, esperando a lo más el tiempo
+     * recibido a que haya espacio.
+     * @param elemento el elemento a meter.
+     * @param tiempo el tiempo máximo de espera.
+     * @param unidad la unidad del tiempo de espera.
+     * @return <tt>true</tt> si el elemento se metió, <tt>false</tt>
+     *         si se acabó el tiempo antes de que hubiera espacio.
+     * @throws InterruptedException si el hilo es interrumpido
+     *         mientras espera.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public boolean meteBloqueante(T elemento, long tiempo, TimeUnit unidad)
+        throws InterruptedException {
+        if (elemento == null)
+            throw new NullPointerException();
+        long nanos = unidad.toNanos(tiempo);
+        candado.lockInterruptibly();
+        try {
+            while (lista.getLongitud() == capacidad) {
+                if (nanos <= 0)
+                    return false;
+                nanos = noLlena.awaitNanos(nanos);
+            }
+            encola(elemento);
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Saca el elemento al frente de la cola si hay alguno, sin
+     * esperar.
+     * @return el elemento al frente de la cola, o <tt>null</tt> si
+     *         la cola está vacía.
+     */
+    public T intentaSacar() {
+        candado.lock();
+        try {
+            return lista.getLongitud() == 0 ? null : desencola();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Saca el elemento al frente de la cola, sin esperar.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public T saca() {
+        T t = intentaSacar();
+        if (t == null)
+            throw new NoSuchElementException();
+        return t;
+    }
+
+    /**
+     * Saca el elemento al frente de la cola, esperando el tiempo que
+     * sea necesario a que haya uno.
+     * @return el elemento al frente de la cola.
+     * @throws InterruptedException si el hilo es interrumpido
+     *         mientras espera.
+     */
+    public T sacaBloqueante() throws InterruptedException {
+        candado.lockInterruptibly();
+        try {
+            while (lista.getLongitud() == 0)
+                noVacia.await();
+            return desencola();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Saca el elemento al frente de la cola, esperando a lo más el
+     * tiempo recibido a que haya uno.
+     * @param tiempo el tiempo máximo de espera.
+     * @param unidad la unidad del tiempo de espera.
+     * @return el elemento al frente de la cola, o <tt>null</tt> si se
+     *         acabó el tiempo antes de que hubiera uno.
+     * @throws InterruptedException si el hilo es interrumpido
+     *         mientras espera.
+     */
+    public T sacaBloqueante(long tiempo, TimeUnit unidad)
+        throws InterruptedException {
+        long nanos = unidad.toNanos(tiempo);
+        candado.lockInterruptibly();
+        try {
+            while (lista.getLongitud() == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = noVacia.awaitNanos(nanos);
+            }
+            return desencola();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Mete todos los elementos del arreglo a la cola, sin esperar,
+     * tomando el candado una sola vez. Si no caben todos, no se mete
+     * ninguno.
+     * @param elementos los elementos a meter.
+     * @throws IllegalStateException si no hay espacio para todos los
+     *         elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    @Override public void meteTodos(T[] elementos) {
+        for (T e : elementos)
+            if (e == null)
+                throw new NullPointerException();
+        candado.lock();
+        try {
+            if (elementos.length > capacidad - lista.getLongitud())
+                throw new IllegalStateException();
+            lista.agregaArreglo(elementos);
+            if (elementos.length > 0)
+                noVacia.signalAll();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Mete todos los elementos del iterable a la cola, sin esperar,
+     * tomando el candado una sola vez. Los elementos se copian
+     * primero a un arreglo; si no caben todos, no se mete ninguno.
+     * @param elementos los elementos a meter.
+     * @throws IllegalStateException si no hay espacio para todos los
+     *         elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    @Override public void meteTodos(Iterable<? extends T> elementos) {
+        ArregloCircular<T> copia = new ArregloCircular<T>();
+        for (T e : elementos)
+            copia.agregaFinal(e);
+        @SuppressWarnings("unchecked") T[] arreglo =
+            (T[])new Object[copia.getLongitud()];
+        copia.eliminaPrimeros(arreglo, arreglo.length);
+        meteTodos(arreglo);
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos de la cola, sin esperar, y
+     * los guarda en el arreglo en el orden en que salen, tomando el
+     * candado una sola vez.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    @Override public int sacaHasta(T[] destino, int maximo) {
+        candado.lock();
+        try {
+            int n = lista.eliminaPrimeros(destino, maximo);
+            if (n > 0)
+                noLlena.signalAll();
+            return n;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Saca todos los elementos de la cola, sin esperar, y le aplica
+     * la acción recibida a cada uno. Los elementos se sacan en
+     * bloques, y la acción se aplica sin tener el candado, así que
+     * puede meter elementos a esta misma cola.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
+     */
+    @Override public int drena(Consumer<? super T> accion) {
+        @SuppressWarnings("unchecked") T[] bloque =
+            (T[])new Object[Math.min(capacidad, 256)];
+        int n = 0, k;
+        while ((k = sacaHasta(bloque, bloque.length)) > 0) {
+            for (int i = 0; i < k; i++) {
+                accion.accept(bloque[i]);
+                bloque[i] = null;
+            }
+            n += k;
+        }
+        return n;
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos de la cola, sin esperar, y
+     * los agrega al final de la lista recibida en el orden en que
+     * salieron. Toma el candado una sola vez, así que es más barato
+     * que sacar los elementos uno por uno.
+     * @param lista la lista donde se agregan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    public int drenaA(Lista<? super T> lista, int maximo) {
+        if (maximo < 0)
+            throw new IllegalArgumentException();
+        candado.lock();
+        try {
+            int n = Math.min(maximo, this.lista.getLongitud());
+            for (int i = 0; i < n; i++)
+                lista.agregaFinal(this.lista.eliminaPrimero());
+            if (n > 0)
+                noLlena.signalAll();
+            return n;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public T mira() {
+        candado.lock();
+        try {
+            return lista.getPrimero();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Nos dice si la cola está vacía.
+     * @return <tt>true</tt> si la cola no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return getLongitud() == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public int getLongitud() {
+        candado.lock();
+        try {
+            return lista.getLongitud();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Regresa la capacidad de la cola.
+     * @return el número máximo de elementos en la cola.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+}
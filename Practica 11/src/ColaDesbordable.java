@@ -0,0 +1,331 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * <p>Clase para colas que se desbordan a disco.</p>
+ *
+ * <p>La cola mantiene en memoria a lo más <tt>limite</tt> elementos
+ * del frente y <tt>limite</tt> del final; cuando el final se llena,
+ * sus elementos se escriben en un archivo de segmento y se sacan de
+ * la memoria. Cuando el frente se vacía, se lee de regreso el
+ * segmento más antiguo. Así la cola puede crecer más allá de lo que
+ * cabe en memoria, sin dejar de ser FIFO, y mientras la cola sea
+ * pequeña nunca toca el disco.</p>
+ *
+ * <p>Los elementos se convierten a bytes con un {@link Codificador}
+ * en cuanto entran al final en memoria, así que un elemento que el
+ * codificador rechaza no entra a la cola. La cola no acepta
+ * elementos nulos.</p>
+ *
+ * <p>Los segmentos se escriben y se leen completos con un {@link
+ * FileChannel} en el directorio recibido, y se borran en cuanto se
+ * leen; {@link #cierra} borra los que queden. Los errores de entrada
+ * y salida se reportan con {@link UncheckedIOException}.</p>
+ */
+public class ColaDesbordable<T> extends Cola<T> {
+
+    /* Clase Segmento privada para los elementos en disco. */
+    private class Segmento {
+        /* El archivo. */
+        public Path archivo;
+        /* El número de elementos en el archivo. */
+        public int cuenta;
+
+        public Segmento(Path archivo, int cuenta) {
+            this.archivo = archivo;
+            this.cuenta = cuenta;
+        }
+    }
+
+    /* El codificador de elementos. */
+    private final Codificador<T> codificador;
+    /* Número máximo de elementos en memoria de cada lado. */
+    private final int limite;
+    /* Directorio de los segmentos. */
+    private final Path directorio;
+    /* El final de la cola en memoria; el frente es la lista
+     * subyaciente. */
+    private final ArregloCircular<T> rabo;
+    /* Los elementos del final en memoria, ya codificados. */
+    private final ArregloCircular<byte[]> codificados;
+    /* Los segmentos en disco, del más antiguo al más reciente. */
+    private final ArregloCircular<Segmento> segmentos;
+    /* Los archivos de segmentos ya leídos que no se pudieron borrar;
+     * {@link #cierra} los vuelve a intentar borrar. */
+    private final ArregloCircular<Path> huerfanos;
+    /* Número total de elementos. */
+    private long longitud;
+
+    /**
+     * Construye una cola vacía que se desborda a disco.
+     * @param codificador el codificador de los elementos.
+     * @param limite el número máximo de elementos que se mantienen
+     *        en memoria en cada extremo de la cola.
+     * @param directorio el directorio donde se escriben los
+     *        segmentos.
+     * @throws IllegalArgumentException si el límite es menor que
+     *         uno.
+     */
+    public ColaDesbordable(Codificador<T> codificador, int limite,
+                           Path directorio) {
+        super(new ArregloCircular<T>());
+        if (limite < 1)
+            throw new IllegalArgumentException();
+        this.codificador = codificador;
+        this.limite = limite;
+        this.directorio = directorio;
+        rabo = new ArregloCircular<T>();
+        codificados = new ArregloCircular<byte[]>();
+        segmentos = new ArregloCircular<Segmento>();
+        huerfanos = new ArregloCircular<Path>();
+    }
+
+    /**
+     * Agrega un elemento al final de la cola. Si el final en memoria
+     * se llena, se escribe a disco. Si la escritura falla, el
+     * elemento no se agrega y la cola queda como estaba.
+     * @param elemento el elemento a agregar.
+     * @throws NullPointerException si el elemento es nulo.
+     * @throws UncheckedIOException si ocurre un error al escribir el
+     *         segmento.
+     */
+    @Override public void mete(T elemento) {
+        if (elemento == null)
+            throw new NullPointerException();
+        if (segmentos.getLongitud() == 0 && rabo.getLongitud() == 0 &&
+            lista.getLongitud() < limite) {
+            lista.agregaFinal(elemento);
+            longitud++;
+            return;
+        }
+        byte[] e = codificador.codifica(elemento);
+        rabo.agregaFinal(elemento);
+        codificados.agregaFinal(e);
+        if (rabo.getLongitud() >= limite) {
+            try {
+                escribeSegmento();
+            } catch (RuntimeException re) {
+                rabo.eliminaUltimo();
+                codificados.eliminaUltimo();
+                throw re;
+            }
+        }
+        longitud++;
+    }
+
+    /* Escribe el final en memoria a un segmento nuevo y lo vacía. Si
+     * la escritura falla, borra el archivo y deja el final intacto. */
+    private void escribeSegmento() {
+        byte[][] bytes = new byte[codificados.getLongitud()][];
+        long total = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = codificados.get(i);
+            total += 4 + bytes[i].length;
+        }
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalStateException();
+        ByteBuffer b = ByteBuffer.allocate((int)total);
+        for (byte[] e : bytes)
+            b.putInt(e.length).put(e);
+        b.flip();
+        Path archivo = null;
+        try {
+            archivo = Files.createTempFile(directorio, "cola", ".seg");
+            try (FileChannel canal =
+                 FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                while (b.hasRemaining())
+                    canal.write(b);
+            }
+        } catch (IOException ioe) {
+            if (archivo != null) {
+                try {
+                    Files.deleteIfExists(archivo);
+                } catch (IOException e) {
+                    ioe.addSuppressed(e);
+                }
+            }
+            throw new UncheckedIOException(ioe);
+        }
+        segmentos.agregaFinal(new Segmento(archivo, bytes.length));
+        rabo.limpia();
+        codificados.limpia();
+    }
+
+    /* Lee el segmento más antiguo al frente en memoria y lo borra.
+     * Los elementos se decodifican todos antes de tocar la cola, así
+     * que si la lectura falla, la cola queda como estaba. Si el
+     * archivo no se puede borrar, se recuerda para borrarlo en
+     * cierra(); el segmento ya no se vuelve a leer. */
+    private void leeSegmento() {
+        Segmento s = segmentos.getPrimero();
+        @SuppressWarnings("unchecked") T[] elementos =
+            (T[])new Object[s.cuenta];
+        try (FileChannel canal =
+             FileChannel.open(s.archivo, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate((int)canal.size());
+            while (b.hasRemaining())
+                if (canal.read(b) < 0)
+                    throw new IOException("Segmento truncado: " +
+                                          s.archivo);
+            b.flip();
+            for (int i = 0; i < s.cuenta; i++) {
+                byte[] e = new byte[b.getInt()];
+                b.get(e);
+                elementos[i] = codificador.decodifica(e);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        lista.agregaArreglo(elementos);
+        segmentos.eliminaPrimero();
+        try {
+            Files.delete(s.archivo);
+        } catch (IOException ioe) {
+            huerfanos.agregaFinal(s.archivo);
+        }
+    }
+
+    /* Se asegura de que el frente en memoria tenga el primer
+     * elemento, si la cola no es vacía. */
+    private void llenaFrente() {
+        if (lista.getLongitud() > 0)
+            return;
+        if (segmentos.getLongitud() > 0)
+            leeSegmento();
+        else
+            while (rabo.getLongitud() > 0) {
+                lista.agregaFinal(rabo.eliminaPrimero());
+                codificados.eliminaPrimero();
+            }
+    }
+
+    /**
+     * Elimina el elemento al frente de la cola y lo regresa.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola es vacía.
+     * @throws UncheckedIOException si ocurre un error al leer un
+     *         segmento.
+     */
+    @Override public T saca() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        llenaFrente();
+        longitud--;
+        return lista.eliminaPrimero();
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo
+     * de la misma.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola es vacía.
+     * @throws UncheckedIOException si ocurre un error al leer un
+     *         segmento.
+     */
+    @Override public T mira() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        llenaFrente();
+        return lista.getPrimero();
+    }
+
+    /**
+     * Mete todos los elementos del arreglo a la cola, uno por uno.
+     * @param elementos los elementos a meter.
+     */
+    @Override public void meteTodos(T[] elementos) {
+        for (T e : elementos)
+            mete(e);
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos de la cola, uno por uno, y
+     * los guarda en el arreglo.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    @Override public int sacaHasta(T[] destino, int maximo) {
+        if (maximo < 0)
+            throw new IllegalArgumentException();
+        maximo = Math.min(maximo, destino.length);
+        int n = 0;
+        while (n < maximo && !esVacia())
+            destino[n++] = saca();
+        return n;
+    }
+
+    /**
+     * Saca todos los elementos de la cola, uno por uno, y le aplica
+     * la acción recibida a cada uno.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
+     */
+    @Override public int drena(Consumer<? super T> accion) {
+        int n = 0;
+        while (!esVacia()) {
+            accion.accept(saca());
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Nos dice si la cola está vacía.
+     * @return <tt>true</tt> si la cola no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return longitud == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola, en memoria y en
+     * disco.
+     * @return el número de elementos en la cola.
+     */
+    public long getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Regresa el número de segmentos que están en disco.
+     * @return el número de segmentos en disco.
+     */
+    public int getSegmentos() {
+        return segmentos.getLongitud();
+    }
+
+    /**
+     * Vacía la cola y borra los segmentos que queden en disco,
+     * incluyendo los ya leídos que no se pudieron borrar antes.
+     * @throws UncheckedIOException si ocurre un error al borrar un
+     *         segmento.
+     */
+    public void cierra() {
+        try {
+            while (huerfanos.getLongitud() > 0) {
+                Files.deleteIfExists(huerfanos.getPrimero());
+                huerfanos.eliminaPrimero();
+            }
+            while (segmentos.getLongitud() > 0)
+                Files.deleteIfExists(segmentos.eliminaPrimero().archivo);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        ((ArregloCircular<T>)lista).limpia();
+        rabo.limpia();
+        codificados.limpia();
+        longitud = 0;
+    }
+}
@@ -0,0 +1,480 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>Clase para colas durables.</p>
+ *
+ * <p>Una cola durable guarda sus elementos en archivos de segmento
+ * dentro de un directorio, y sobrevive a que el proceso termine: al
+ * construir otra cola sobre el mismo directorio se recuperan los
+ * elementos que no se habían sacado, en el mismo orden.</p>
+ *
+ * <p>Los segmentos tienen tamaño fijo y se proyectan en memoria, así
+ * que {@link #mete} sólo copia bytes, sin llamadas al sistema. Cada
+ * registro lleva su longitud y una suma de verificación que incluye
+ * el número de segmento; al recuperar, el primer registro incompleto
+ * o inválido marca el final de la cola. Justo después de cada
+ * registro nuevo se escribe un encabezado inválido, para que un
+ * registro viejo que siga más adelante en el segmento no vuelva a
+ * parecer válido. La posición de lectura se
+ * guarda en un archivo <tt>cursor</tt>, también proyectado.</p>
+ *
+ * <p>Los datos se fuerzan a disco en lotes: cada <tt>lote</tt>
+ * elementos metidos o sacados, y en cada llamada a {@link
+ * #sincroniza}. Si el proceso falla, no se pierde nada; si falla el
+ * sistema operativo, se conservan los elementos metidos hasta la
+ * última sincronización, y los sacados después de ella pueden volver
+ * a aparecer. Cuando la lectura termina un segmento, su archivo se
+ * guarda para reutilizarse como el siguiente segmento de escritura,
+ * en lugar de borrarlo y crear otro. Cada vez que se crea, renombra o
+ * borra un segmento, se fuerza también el directorio, para que la
+ * entrada del segmento sobreviva junto con sus datos.</p>
+ *
+ * <p>Mientras la cola está abierta tiene un candado exclusivo sobre el
+ * archivo <tt>cursor</tt>, así que ninguna otra cola, de este o de
+ * otro proceso, puede abrir el mismo directorio; {@link #cierra}
+ * suelta el candado.</p>
+ *
+ * <p>La clase no es segura para hilos, igual que {@link Cola}. Los
+ * errores de entrada y salida se reportan con {@link
+ * UncheckedIOException}.</p>
+ */
+public class ColaDurable<T> extends MeteSaca<T> {
+
+    /* Tamaño predeterminado de los segmentos. */
+    private static final int TAMANO_SEGMENTO = 1 << 26;
+    /* Tamaño predeterminado de los lotes. */
+    private static final int LOTE = 64;
+    /* Bytes de encabezado de cada registro: longitud y suma. */
+    private static final int ENCABEZADO = 8;
+    /* Marca de fin de segmento. */
+    private static final int FIN = -1;
+    /* Nombre del archivo de reserva. */
+    private static final String RESERVA = "reserva.seg";
+
+    /* El directorio de la cola. */
+    private final Path directorio;
+    /* El codificador de elementos. */
+    private final Codificador<T> codificador;
+    /* Tamaño de cada segmento. */
+    private final int tamano;
+    /* Número de operaciones entre sincronizaciones. */
+    private final int lote;
+    /* Para calcular sumas de verificación. */
+    private final CRC32C suma;
+    /* El canal del archivo del cursor, que tiene el candado del
+     * directorio; null si la cola está cerrada. */
+    private FileChannel canalCursor;
+    /* El cursor de lectura; un long con el segmento en los 32 bits
+     * altos y la posición en los bajos. */
+    private MappedByteBuffer cursor;
+
+    /* Segmento, posición y proyección de lectura. */
+    private long segmentoLectura;
+    private int posicionLectura;
+    private MappedByteBuffer lectura;
+    /* Segmento, posición y proyección de escritura. */
+    private long segmentoEscritura;
+    private int posicionEscritura;
+    private MappedByteBuffer escritura;
+    /* Número de elementos. */
+    private long longitud;
+    /* Operaciones desde la última sincronización. */
+    private int pendientes;
+
+    /**
+     * Construye o recupera una cola durable con segmentos de 64 MiB,
+     * sincronizando cada 64 operaciones.
+     * @param directorio el directorio de la cola; se crea si no
+     *        existe.
+     * @param codificador el codificador de los elementos.
+     * @throws IllegalStateException si otra cola tiene abierto el
+     *         directorio.
+     * @throws UncheckedIOException si ocurre un error al abrir o
+     *         recuperar la cola.
+     */
+    public ColaDurable(Path directorio, Codificador<T> codificador) {
+        this(directorio, codificador, TAMANO_SEGMENTO, LOTE);
+    }
+
+    /**
+     * Construye o recupera una cola durable.
+     * @param directorio el directorio de la cola; se crea si no
+     *        existe.
+     * @param codificador el codificador de los elementos.
+     * @param tamano el tamaño en bytes de cada segmento; limita
+     *        también el tamaño de un elemento codificado.
+     * @param lote el número de operaciones entre sincronizaciones.
+     * @throws IllegalArgumentException si el tamaño no está entre
+     *         64 bytes y 1 GiB, o el lote es menor que uno.
+     * @throws IllegalStateException si otra cola tiene abierto el
+     *         directorio.
+     * @throws UncheckedIOException si ocurre un error al abrir o
+     *         recuperar la cola.
+     */
+    public ColaDurable(Path directorio, Codificador<T> codificador,
+                       int tamano, int lote) {
+        if (tamano < 64 || tamano > 1 << 30 || lote < 1)
+            throw new IllegalArgumentException();
+        this.directorio = directorio;
+        this.codificador = codificador;
+        this.tamano = tamano;
+        this.lote = lote;
+        suma = new CRC32C();
+        try {
+            Files.createDirectories(directorio);
+            canalCursor =
+                FileChannel.open(directorio.resolve("cursor"),
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.READ,
+                                 StandardOpenOption.WRITE);
+            /* Si el candado lo tiene otra cola de esta misma máquina
+             * virtual, tryLock() lanza OverlappingFileLockException,
+             * que también es IllegalStateException. */
+            if (canalCursor.tryLock() == null)
+                throw new IllegalStateException("El directorio ya está " +
+                                                "abierto: " + directorio);
+            cursor = canalCursor.map(FileChannel.MapMode.READ_WRITE, 0, 8);
+            recupera();
+            sincronizaDirectorio();
+        } catch (IOException | RuntimeException e) {
+            if (canalCursor != null) {
+                try {
+                    canalCursor.close();
+                } catch (IOException ce) {
+                    e.addSuppressed(ce);
+                }
+            }
+            if (e instanceof IOException)
+                throw new UncheckedIOException((IOException)e);
+            throw (RuntimeException)e;
+        }
+    }
+
+    /* Lanza IllegalStateException si la cola está cerrada. */
+    private void revisaAbierta() {
+        if (canalCursor == null)
+            throw new IllegalStateException("La cola está cerrada");
+    }
+
+    /* Regresa el archivo del segmento. */
+    private Path archivo(long segmento) {
+        return directorio.resolve(String.format("%019d.seg", segmento));
+    }
+
+    /* Proyecta en memoria los primeros bytes del archivo, creándolo
+     * si no existe. */
+    private static MappedByteBuffer proyecta(Path archivo, int bytes)
+        throws IOException {
+        try (FileChannel canal =
+             FileChannel.open(archivo, StandardOpenOption.CREATE,
+                              StandardOpenOption.READ,
+                              StandardOpenOption.WRITE)) {
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    /* Fuerza a disco las entradas del directorio, para que los
+     * segmentos creados, renombrados o borrados sobrevivan a una
+     * falla del sistema. */
+    private void sincronizaDirectorio() throws IOException {
+        try (FileChannel canal =
+             FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        }
+    }
+
+    /* Calcula la suma de verificación de un registro. */
+    private int suma(long segmento, MappedByteBuffer b, int p, int n) {
+        suma.reset();
+        for (int i = 0; i < 8; i++)
+            suma.update((int)(segmento >>> (8 * i)));
+        b.position(p);
+        b.limit(p + n);
+        suma.update(b);
+        b.clear();
+        return (int)suma.getValue();
+    }
+
+    /* Regresa la posición después del registro válido en p, o -1 si
+     * en p no hay un registro válido. */
+    private int siguienteValido(long segmento, MappedByteBuffer b, int p) {
+        if (p > tamano - ENCABEZADO)
+            return -1;
+        int n = b.getInt(p);
+        if (n < 0 || n > tamano - ENCABEZADO - p)
+            return -1;
+        if (b.getInt(p + 4) != suma(segmento, b, p + ENCABEZADO, n))
+            return -1;
+        return p + ENCABEZADO + n;
+    }
+
+    /* Lee los segmentos y el cursor, y deja la cola en el estado en
+     * que estaba. */
+    private void recupera() throws IOException {
+        long primero = Long.MAX_VALUE, ultimo = -1;
+        try (DirectoryStream<Path> ds =
+             Files.newDirectoryStream(directorio, "*.seg")) {
+            for (Path p : ds) {
+                String s = p.getFileName().toString();
+                if (s.equals(RESERVA))
+                    continue;
+                long k = Long.parseLong(s.substring(0, s.length() - 4));
+                primero = Math.min(primero, k);
+                ultimo = Math.max(ultimo, k);
+            }
+        }
+        long c = cursor.getLong(0);
+        segmentoLectura = c >>> 32;
+        posicionLectura = (int)c;
+        if (ultimo == -1)
+            primero = ultimo = segmentoLectura;
+        if (segmentoLectura < primero) {
+            segmentoLectura = primero;
+            posicionLectura = 0;
+        }
+        /* Los segmentos anteriores al cursor ya se leyeron. */
+        for (long k = primero; k <= ultimo && k < segmentoLectura; k++)
+            recicla(k);
+        if (segmentoLectura > ultimo) {
+            ultimo = segmentoLectura;
+            posicionLectura = 0;
+        }
+        /* Cuenta los elementos y encuentra el final de la cola. */
+        longitud = 0;
+        for (long k = segmentoLectura; k <= ultimo; k++) {
+            MappedByteBuffer b = proyecta(archivo(k), tamano);
+            int p = k == segmentoLectura ? posicionLectura : 0, q;
+            while ((q = siguienteValido(k, b, p)) != -1) {
+                p = q;
+                longitud++;
+            }
+            if (k == segmentoLectura)
+                lectura = b;
+            /* Si la marca de fin se perdió, la repone. */
+            if (k < ultimo)
+                b.putInt(p, FIN);
+            if (k == ultimo) {
+                segmentoEscritura = k;
+                posicionEscritura = p;
+                escritura = b;
+            }
+        }
+        guardaCursor();
+        sincroniza();
+    }
+
+    /* Guarda el cursor de lectura, sin forzarlo a disco. */
+    private void guardaCursor() {
+        cursor.putLong(0, segmentoLectura << 32 | posicionLectura);
+    }
+
+    /* Borra el segmento, o lo guarda como reserva si no hay una. */
+    private void recicla(long segmento) throws IOException {
+        Path r = directorio.resolve(RESERVA);
+        if (Files.exists(r))
+            Files.deleteIfExists(archivo(segmento));
+        else
+            Files.move(archivo(segmento), r,
+                       StandardCopyOption.ATOMIC_MOVE);
+        sincronizaDirectorio();
+    }
+
+    /* Cuenta una operación, y sincroniza si se completó un lote. */
+    private void cuenta() {
+        if (++pendientes >= lote)
+            sincroniza();
+    }
+
+    /**
+     * Mete un elemento al final de la cola.
+     * @param elemento el elemento a meter.
+     * @throws IllegalArgumentException si el elemento codificado no
+     *         cabe en un segmento.
+     * @throws IllegalStateException si la cola está cerrada.
+     * @throws UncheckedIOException si ocurre un error al crear un
+     *         segmento.
+     */
+    @Override public void mete(T elemento) {
+        revisaAbierta();
+        byte[] bytes = codificador.codifica(elemento);
+        /* Cada segmento reserva 4 bytes al final para la marca. */
+        if (bytes.length > tamano - ENCABEZADO - 4)
+            throw new IllegalArgumentException();
+        if (posicionEscritura + ENCABEZADO + bytes.length > tamano - 4)
+            nuevoSegmento();
+        int p = posicionEscritura, q = p + ENCABEZADO + bytes.length;
+        escritura.put(p + ENCABEZADO, bytes);
+        /* Un registro viejo en q, de un uso anterior del segmento o
+         * escrito después del final recuperado, podría tener una suma
+         * válida; se invalida antes de que este registro lo sea. */
+        invalida(segmentoEscritura, escritura, q);
+        escritura.putInt(p + 4, suma(segmentoEscritura, escritura,
+                                     p + ENCABEZADO, bytes.length));
+        escritura.putInt(p, bytes.length);
+        posicionEscritura = q;
+        longitud++;
+        cuenta();
+    }
+
+    /* Escribe en p un encabezado inválido: longitud cero con la suma
+     * equivocada. Si en p no cabe un encabezado, ahí no puede haber
+     * un registro válido y no hace nada. */
+    private void invalida(long segmento, MappedByteBuffer b, int p) {
+        if (p > tamano - ENCABEZADO)
+            return;
+        b.putInt(p, 0);
+        b.putInt(p + 4, ~suma(segmento, b, p + ENCABEZADO, 0));
+    }
+
+    /* Cierra el segmento de escritura y empieza uno nuevo. */
+    private void nuevoSegmento() {
+        escritura.putInt(posicionEscritura, FIN);
+        escritura.force();
+        try {
+            long k = segmentoEscritura + 1;
+            Path r = directorio.resolve(RESERVA);
+            if (Files.exists(r))
+                Files.move(r, archivo(k), StandardCopyOption.ATOMIC_MOVE);
+            MappedByteBuffer b = proyecta(archivo(k), tamano);
+            sincronizaDirectorio();
+            /* Invalida el primer registro que dejó el uso anterior
+             * del archivo, por si la cola se recupera antes de
+             * escribir aquí. */
+            invalida(k, b, 0);
+            segmentoEscritura = k;
+            posicionEscritura = 0;
+            escritura = b;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /* Si la lectura terminó su segmento, pasa al siguiente. */
+    private void avanzaLectura() {
+        if (segmentoLectura == segmentoEscritura ||
+            lectura.getInt(posicionLectura) != FIN)
+            return;
+        long k = segmentoLectura;
+        segmentoLectura++;
+        posicionLectura = 0;
+        lectura = segmentoLectura == segmentoEscritura ? escritura : null;
+        guardaCursor();
+        cursor.force();
+        try {
+            recicla(k);
+            if (lectura == null)
+                lectura = proyecta(archivo(segmentoLectura), tamano);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /* Decodifica el registro en la posición de lectura. */
+    private T leeRegistro() {
+        byte[] bytes = new byte[lectura.getInt(posicionLectura)];
+        lectura.get(posicionLectura + ENCABEZADO, bytes);
+        return codificador.decodifica(bytes);
+    }
+
+    /**
+     * Saca el elemento al frente de la cola y lo regresa.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola es vacía.
+     * @throws IllegalStateException si la cola está cerrada.
+     * @throws UncheckedIOException si ocurre un error al cambiar de
+     *         segmento.
+     */
+    @Override public T saca() {
+        revisaAbierta();
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        avanzaLectura();
+        T t = leeRegistro();
+        posicionLectura += ENCABEZADO + lectura.getInt(posicionLectura);
+        guardaCursor();
+        longitud--;
+        cuenta();
+        return t;
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo
+     * de la misma.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola es vacía.
+     * @throws IllegalStateException si la cola está cerrada.
+     * @throws UncheckedIOException si ocurre un error al cambiar de
+     *         segmento.
+     */
+    @Override public T mira() {
+        revisaAbierta();
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        avanzaLectura();
+        return leeRegistro();
+    }
+
+    /**
+     * Nos dice si la cola está vacía.
+     * @return <tt>true</tt> si la cola no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return longitud == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public long getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Fuerza a disco los elementos metidos y el cursor de lectura.
+     * Al regresar, todo lo hecho hasta ahora sobrevive a una falla
+     * del sistema.
+     * @throws IllegalStateException si la cola está cerrada.
+     */
+    public void sincroniza() {
+        revisaAbierta();
+        escritura.force();
+        cursor.force();
+        pendientes = 0;
+    }
+
+    /**
+     * Fuerza a disco la cola y la cierra: suelta las proyecciones de
+     * los segmentos y del cursor, y el candado del directorio, para
+     * que otra cola lo pueda abrir. Después de cerrarla, la cola ya
+     * no se puede usar; cerrarla otra vez no hace nada.
+     * @throws UncheckedIOException si ocurre un error al cerrar el
+     *         archivo del cursor.
+     */
+    public void cierra() {
+        if (canalCursor == null)
+            return;
+        sincroniza();
+        lectura = escritura = cursor = null;
+        try {
+            canalCursor.close();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } finally {
+            canalCursor = null;
+        }
+    }
+}
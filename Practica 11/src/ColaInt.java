@@ -0,0 +1,26 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para colas de <tt>int</tt>.
+ */
+public class ColaInt extends MeteSacaInt {
+
+    /**
+     * Elimina el elemento al frente de la cola y lo regresa.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public int saca() {
+        return lista.eliminaPrimero();
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo
+     * de la misma.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public int mira() {
+        return lista.getPrimero();
+    }
+}
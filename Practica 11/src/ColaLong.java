@@ -0,0 +1,26 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para colas de <tt>long</tt>.
+ */
+public class ColaLong extends MeteSacaLong {
+
+    /**
+     * Elimina el elemento al frente de la cola y lo regresa.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public long saca() {
+        return lista.eliminaPrimero();
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo
+     * de la misma.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public long mira() {
+        return lista.getPrimero();
+    }
+}
@@ -0,0 +1,316 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * <p>Clase para colas acotadas de varios productores y varios
+ * consumidores.</p>
+ *
+ * <p>Cualquier número de hilos puede meter y sacar elementos al
+ * mismo tiempo, sin candados. Los elementos se guardan en un arreglo
+ * circular de capacidad fija, potencia de dos, y cada casilla tiene
+ * un número de secuencia que dice si está lista para escribirse o
+ * para leerse; los hilos se reparten las casillas avanzando los
+ * índices de escritura y lectura con comparar e intercambiar. Un
+ * hilo que falla al avanzar un índice simplemente lo vuelve a
+ * intentar con el nuevo valor.</p>
+ *
+ * <p>Los índices de escritura y lectura viven en líneas de caché
+ * distintas, separadas por relleno, para que productores y
+ * consumidores no invaliden mutuamente sus cachés (<em>false
+ * sharing</em>).</p>
+ *
+ * <p>Si sólo hay un productor y un consumidor, {@link ColaSPSC} es
+ * más rápida. La cola no acepta elementos nulos.</p>
+ */
+public class ColaMPMC<T> extends MeteSaca<T> {
+
+    /* Número de longs entre índices; 128 bytes cubren dos líneas de
+     * caché y el precargador adyacente. */
+    private static final int RELLENO = 16;
+    /* Índice de escritura. */
+    private static final int COLA = RELLENO;
+    /* Índice de lectura. */
+    private static final int CABEZA = 2 * RELLENO;
+
+    /* Los elementos. */
+    private final Object[] elementos;
+    /* Los números de secuencia de cada casilla. La casilla i está
+     * lista para escribirse en el índice k cuando su secuencia es k,
+     * y para leerse cuando es k + 1. */
+    private final AtomicLongArray secuencias;
+    /* Máscara para reducir un índice a una posición del arreglo. */
+    private final int mascara;
+    /* Los índices, separados por relleno. */
+    private final AtomicLongArray indices;
+
+    /**
+     * Construye una cola vacía con espacio para al menos el número
+     * de elementos recibido.
+     * @param capacidad la capacidad mínima de la cola.
+     * @throws IllegalArgumentException si la capacidad es menor que
+     *         uno, o mayor que 2<sup>30</sup>.
+     */
+    public ColaMPMC(int capacidad) {
+        if (capacidad < 1 || capacidad > 1 << 30)
+            throw new IllegalArgumentException();
+        int n = 2;
+        while (n < capacidad)
+            n <<= 1;
+        elementos = new Object[n];
+        secuencias = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++)
+            secuencias.setPlain(i, i);
+        mascara = n - 1;
+        indices = new AtomicLongArray(3 * RELLENO);
+    }
+
+    /**
+     * Mete un elemento a la cola si hay espacio.
+     * @param elemento el elemento a meter.
+     * @return <tt>true</tt> si el elemento se metió, <tt>false</tt>
+     *         si la cola estaba llena.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public boolean ofrece(T elemento) {
+        if (elemento == null)
+            throw new NullPointerException();
+        long cola = indices.get(COLA);
+        while (true) {
+            int i = (int)cola & mascara;
+            long d = secuencias.getAcquire(i) - cola;
+            if (d == 0) {
+                long w = indices.compareAndExchange(COLA, cola, cola + 1);
+                if (w == cola) {
+                    elementos[i] = elemento;
+                    secuencias.setRelease(i, cola + 1);
+                    return true;
+                }
+                cola = w;
+            } else if (d < 0) {
+                return false;
+            } else {
+                cola = indices.get(COLA);
+            }
+        }
+    }
+
+    /**
+     * Mete un elemento a la cola.
+     * @param elemento el elemento a meter.
+     * @throws IllegalStateException si la cola está llena.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    @Override public void mete(T elemento) {
+        if (!ofrece(elemento))
+            throw new IllegalStateException();
+    }
+
+    /**
+     * Mete todos los elementos del arreglo a la cola si hay espacio
+     * para todos; si no, no mete ninguno. Los elementos quedan
+     * juntos en la cola, sin elementos de otros productores entre
+     * ellos: se revisa que todas las casillas estén libres y se
+     * reservan con un solo comparar e intercambiar.
+     * @param elementos los elementos a meter.
+     * @return <tt>true</tt> si los elementos se metieron,
+     *         <tt>false</tt> si no cabían.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    public boolean ofreceTodos(T[] elementos) {
+        for (T e : elementos)
+            if (e == null)
+                throw new NullPointerException();
+        int n = elementos.length;
+        if (n > mascara + 1)
+            return false;
+        long cola = indices.get(COLA);
+        while (true) {
+            long d = 0;
+            int j = 0;
+            while (j < n &&
+                   (d = secuencias.getAcquire((int)(cola + j) & mascara) -
+                        (cola + j)) == 0)
+                j++;
+            if (j == n) {
+                long w = indices.compareAndExchange(COLA, cola, cola + n);
+                if (w == cola) {
+                    for (j = 0; j < n; j++) {
+                        int i = (int)(cola + j) & mascara;
+                        this.elementos[i] = elementos[j];
+                        secuencias.setRelease(i, cola + j + 1);
+                    }
+                    return true;
+                }
+                cola = w;
+            } else if (d < 0) {
+                return false;
+            } else {
+                cola = indices.get(COLA);
+            }
+        }
+    }
+
+    /**
+     * Mete todos los elementos del arreglo a la cola, o ninguno si
+     * no caben; vea {@link #ofreceTodos}.
+     * @param elementos los elementos a meter.
+     * @throws IllegalStateException si no hay espacio para todos los
+     *         elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    @Override public void meteTodos(T[] elementos) {
+        if (!ofreceTodos(elementos))
+            throw new IllegalStateException();
+    }
+
+    /**
+     * Mete todos los elementos del iterable a la cola, o ninguno si
+     * no caben. Los elementos se copian primero a un arreglo; vea
+     * {@link #meteTodos(Object[])}.
+     * @param elementos los elementos a meter.
+     * @throws IllegalStateException si no hay espacio para todos los
+     *         elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    @Override public void meteTodos(Iterable<? extends T> elementos) {
+        ArregloCircular<T> copia = new ArregloCircular<T>();
+        for (T e : elementos)
+            copia.agregaFinal(e);
+        @SuppressWarnings("unchecked") T[] arreglo =
+            (T[])new Object[copia.getLongitud()];
+        copia.eliminaPrimeros(arreglo, arreglo.length);
+        meteTodos(arreglo);
+    }
+
+    /**
+     * Saca el elemento al frente de la cola, si hay alguno.
+     * @return el elemento al frente de la cola, o <tt>null</tt> si
+     *         la cola está vacía.
+     */
+    @SuppressWarnings("unchecked") public T intentaSacar() {
+        long cabeza = indices.get(CABEZA);
+        while (true) {
+            int i = (int)cabeza & mascara;
+            long d = secuencias.getAcquire(i) - (cabeza + 1);
+            if (d == 0) {
+                long w = indices.compareAndExchange(CABEZA, cabeza, cabeza + 1);
+                if (w == cabeza) {
+                    T t = (T)elementos[i];
+                    elementos[i] = null;
+                    secuencias.setRelease(i, cabeza + mascara + 1);
+                    return t;
+                }
+                cabeza = w;
+            } else if (d < 0) {
+                return null;
+            } else {
+                cabeza = indices.get(CABEZA);
+            }
+        }
+    }
+
+    /**
+     * Saca el elemento al frente de la cola y lo regresa.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public T saca() {
+        T t = intentaSacar();
+        if (t == null)
+            throw new NoSuchElementException();
+        return t;
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos de la cola y los guarda en
+     * el arreglo, en el orden en que salen. Se detiene en cuanto la
+     * encuentra vacía, aunque otros hilos saquen elementos al mismo
+     * tiempo, así que nunca lanza {@link NoSuchElementException}.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    @Override public int sacaHasta(T[] destino, int maximo) {
+        if (maximo < 0)
+            throw new IllegalArgumentException();
+        maximo = Math.min(maximo, destino.length);
+        int n = 0;
+        T t;
+        while (n < maximo && (t = intentaSacar()) != null)
+            destino[n++] = t;
+        return n;
+    }
+
+    /**
+     * Saca elementos de la cola hasta que la encuentra vacía, y le
+     * aplica la acción recibida a cada uno.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
+     */
+    @Override public int drena(Consumer<? super T> accion) {
+        int n = 0;
+        T t;
+        while ((t = intentaSacar()) != null) {
+            accion.accept(t);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo.
+     * Si otros hilos sacan elementos al mismo tiempo, el elemento
+     * regresado pudo haber salido ya de la cola.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @SuppressWarnings("unchecked") @Override public T mira() {
+        while (true) {
+            long cabeza = indices.get(CABEZA);
+            int i = (int)cabeza & mascara;
+            long d = secuencias.getAcquire(i) - (cabeza + 1);
+            if (d < 0)
+                throw new NoSuchElementException();
+            T t = (T)elementos[i];
+            /* Si nadie sacó el elemento mientras lo leíamos, es el
+             * que estaba al frente. */
+            if (d == 0 && t != null && indices.get(CABEZA) == cabeza)
+                return t;
+        }
+    }
+
+    /**
+     * Nos dice si la cola está vacía. Si otros hilos trabajan con la
+     * cola, el resultado puede cambiar en cuanto el método regresa.
+     * @return <tt>true</tt> si la cola no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return getLongitud() == 0;
+    }
+
+    /**
+     * Regresa el número aproximado de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public int getLongitud() {
+        while (true) {
+            long cola = indices.get(COLA);
+            long cabeza = indices.get(CABEZA);
+            if (cola == indices.get(COLA))
+                return (int)Math.max(0, cola - cabeza);
+        }
+    }
+
+    /**
+     * Regresa la capacidad de la cola.
+     * @return el número máximo de elementos que caben en la cola.
+     */
+    public int getCapacidad() {
+        return elementos.length;
+    }
+}
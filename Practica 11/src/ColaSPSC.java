@@ -0,0 +1,241 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para colas acotadas de un productor y un consumidor.</p>
+ *
+ * <p>La cola permite que exactamente un hilo meta elementos y otro
+ * hilo (posiblemente distinto) los saque, sin candados ni
+ * sincronización externa. Los elementos se guardan en un arreglo
+ * circular de capacidad fija, potencia de dos; cada lado sólo
+ * escribe su propio índice y lee el del otro con semántica de
+ * adquisición/liberación, y guarda una copia local del índice
+ * contrario para no leerlo en cada operación.</p>
+ *
+ * <p>Los índices de cada lado viven en líneas de caché distintas,
+ * separadas por relleno, para que el productor y el consumidor no
+ * invaliden mutuamente sus cachés (<em>false sharing</em>).</p>
+ *
+ * <p>Si más de un hilo mete, o más de un hilo saca, el comportamiento
+ * es indefinido; para eso está {@link ColaMPMC}. La cola no acepta
+ * elementos nulos.</p>
+ */
+public class ColaSPSC<T> extends MeteSaca<T> {
+
+    /* Número de longs entre índices de lados distintos; 128 bytes
+     * cubren dos líneas de caché y el precargador adyacente. */
+    private static final int RELLENO = 16;
+    /* Índice de escritura (lado del productor). */
+    private static final int COLA = RELLENO;
+    /* Copia del índice de lectura que guarda el productor. */
+    private static final int CABEZA_PRODUCTOR = RELLENO + 1;
+    /* Índice de lectura (lado del consumidor). */
+    private static final int CABEZA = 2 * RELLENO;
+    /* Copia del índice de escritura que guarda el consumidor. */
+    private static final int COLA_CONSUMIDOR = 2 * RELLENO + 1;
+
+    /* Los elementos. */
+    private final Object[] elementos;
+    /* Máscara para reducir un índice a una posición del arreglo. */
+    private final int mascara;
+    /* Los índices, separados por relleno. Los índices crecen sin
+     * dar la vuelta; su diferencia es el número de elementos. */
+    private final AtomicLongArray indices;
+
+    /**
+     * Construye una cola vacía con espacio para al menos el número
+     * de elementos recibido.
+     * @param capacidad la capacidad mínima de la cola.
+     * @throws IllegalArgumentException si la capacidad es menor que
+     *         uno, o mayor que 2<sup>30</sup>.
+     */
+    public ColaSPSC(int capacidad) {
+        if (capacidad < 1 || capacidad > 1 << 30)
+            throw new IllegalArgumentException();
+        int n = 1;
+        while (n < capacidad)
+            n <<= 1;
+        elementos = new Object[n];
+        mascara = n - 1;
+        indices = new AtomicLongArray(3 * RELLENO);
+    }
+
+    /**
+     * Mete un elemento a la cola si hay espacio. Sólo el productor
+     * puede llamar este método.
+     * @param elemento el elemento a meter.
+     * @return <tt>true</tt> si el elemento se metió, <tt>false</tt>
+     *         si la cola estaba llena.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public boolean ofrece(T elemento) {
+        if (elemento == null)
+            throw new NullPointerException();
+        long cola = indices.getPlain(COLA);
+        if (cola - indices.getPlain(CABEZA_PRODUCTOR) > mascara) {
+            indices.setPlain(CABEZA_PRODUCTOR, indices.getAcquire(CABEZA));
+            if (cola - indices.getPlain(CABEZA_PRODUCTOR) > mascara)
+                return false;
+        }
+        elementos[(int)cola & mascara] = elemento;
+        indices.setRelease(COLA, cola + 1);
+        return true;
+    }
+
+    /**
+     * Mete un elemento a la cola. Sólo el productor puede llamar
+     * este método.
+     * @param elemento el elemento a meter.
+     * @throws IllegalStateException si la cola está llena.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    @Override public void mete(T elemento) {
+        if (!ofrece(elemento))
+            throw new IllegalStateException();
+    }
+
+    /**
+     * Mete todos los elementos del arreglo a la cola si hay espacio
+     * para todos; si no, no mete ninguno. El consumidor ve los
+     * elementos nuevos todos a la vez. Sólo el productor puede llamar
+     * este método.
+     * @param elementos los elementos a meter.
+     * @return <tt>true</tt> si los elementos se metieron,
+     *         <tt>false</tt> si no cabían.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    public boolean ofreceTodos(T[] elementos) {
+        for (T e : elementos)
+            if (e == null)
+                throw new NullPointerException();
+        int n = elementos.length;
+        long cola = indices.getPlain(COLA);
+        if (cola + n - indices.getPlain(CABEZA_PRODUCTOR) > mascara + 1) {
+            indices.setPlain(CABEZA_PRODUCTOR, indices.getAcquire(CABEZA));
+            if (cola + n - indices.getPlain(CABEZA_PRODUCTOR) > mascara + 1)
+                return false;
+        }
+        for (int j = 0; j < n; j++)
+            this.elementos[(int)(cola + j) & mascara] = elementos[j];
+        indices.setRelease(COLA, cola + n);
+        return true;
+    }
+
+    /**
+     * Mete todos los elementos del arreglo a la cola, o ninguno si
+     * no caben. Sólo el productor puede llamar este método.
+     * @param elementos los elementos a meter.
+     * @throws IllegalStateException si no hay espacio para todos los
+     *         elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    @Override public void meteTodos(T[] elementos) {
+        if (!ofreceTodos(elementos))
+            throw new IllegalStateException();
+    }
+
+    /**
+     * Mete todos los elementos del iterable a la cola, o ninguno si
+     * no caben. Sólo el productor puede llamar este método. Los
+     * elementos se copian primero a un arreglo; vea {@link
+     * #meteTodos(Object[])}.
+     * @param elementos los elementos a meter.
+     * @throws IllegalStateException si no hay espacio para todos los
+     *         elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    @Override public void meteTodos(Iterable<? extends T> elementos) {
+        ArregloCircular<T> copia = new ArregloCircular<T>();
+        for (T e : elementos)
+            copia.agregaFinal(e);
+        @SuppressWarnings("unchecked") T[] arreglo =
+            (T[])new Object[copia.getLongitud()];
+        copia.eliminaPrimeros(arreglo, arreglo.length);
+        meteTodos(arreglo);
+    }
+
+    /* Regresa el índice de lectura si hay un elemento que leer, o -1
+     * si la cola está vacía. */
+    private long cabezaDisponible() {
+        long cabeza = indices.getPlain(CABEZA);
+        if (cabeza >= indices.getPlain(COLA_CONSUMIDOR)) {
+            indices.setPlain(COLA_CONSUMIDOR, indices.getAcquire(COLA));
+            if (cabeza >= indices.getPlain(COLA_CONSUMIDOR))
+                return -1;
+        }
+        return cabeza;
+    }
+
+    /**
+     * Saca el elemento al frente de la cola, si hay alguno. Sólo el
+     * consumidor puede llamar este método.
+     * @return el elemento al frente de la cola, o <tt>null</tt> si
+     *         la cola está vacía.
+     */
+    @SuppressWarnings("unchecked") public T intentaSacar() {
+        long cabeza = cabezaDisponible();
+        if (cabeza == -1)
+            return null;
+        int i = (int)cabeza & mascara;
+        T t = (T)elementos[i];
+        elementos[i] = null;
+        indices.setRelease(CABEZA, cabeza + 1);
+        return t;
+    }
+
+    /**
+     * Saca el elemento al frente de la cola y lo regresa. Sólo el
+     * consumidor puede llamar este método.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @Override public T saca() {
+        T t = intentaSacar();
+        if (t == null)
+            throw new NoSuchElementException();
+        return t;
+    }
+
+    /**
+     * Nos permite ver el elemento al frente de la cola, sin sacarlo.
+     * Sólo el consumidor puede llamar este método.
+     * @return el elemento al frente de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    @SuppressWarnings("unchecked") @Override public T mira() {
+        long cabeza = cabezaDisponible();
+        if (cabeza == -1)
+            throw new NoSuchElementException();
+        return (T)elementos[(int)cabeza & mascara];
+    }
+
+    /**
+     * Nos dice si la cola está vacía. Si el otro hilo está
+     * trabajando con la cola, el resultado puede cambiar en cuanto
+     * el método regresa.
+     * @return <tt>true</tt> si la cola no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return indices.getAcquire(CABEZA) >= indices.getAcquire(COLA);
+    }
+
+    /**
+     * Regresa el número aproximado de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public int getLongitud() {
+        long cabeza = indices.getAcquire(CABEZA);
+        return (int)Math.max(0, indices.getAcquire(COLA) - cabeza);
+    }
+
+    /**
+     * Regresa la capacidad de la cola.
+     * @return el número máximo de elementos que caben en la cola.
+     */
+    public int getCapacidad() {
+        return elementos.length;
+    }
+}
@@ -255,8 +255,10 @@ public class Diccionario<K, V> implements Iterable<V> {
         if(contiene(llave)){
         int i = indice(llave);
         for(Entrada<K,V> e : entradas[i]){
-            if(e.llave.equals(llave))
+            if(e.llave.equals(llave)){
                 entradas[i].elimina(e);
+                break;
+            }
         }
         if(entradas[i].getLongitud() == 0)
             entradas[i] = null;
@@ -0,0 +1,91 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para estructuras lineales que permiten agregar, eliminar
+ * y consultar elementos en sus dos extremos. Es el almacenamiento
+ * que usan las clases que extienden {@link MeteSacaDobleExtremo};
+ * {@link Lista} y {@link ArregloCircular} la implementan.
+ */
+public interface DobleExtremo<T> {
+
+    /**
+     * Agrega un elemento al final de la estructura.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaFinal(T elemento);
+
+    /**
+     * Agrega un elemento al inicio de la estructura.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaInicio(T elemento);
+
+    /**
+     * Elimina el primer elemento de la estructura y lo regresa.
+     * @return el primer elemento de la estructura.
+     * @throws java.util.NoSuchElementException si la estructura es
+     *         vacía.
+     */
+    public T eliminaPrimero();
+
+    /**
+     * Elimina el último elemento de la estructura y lo regresa.
+     * @return el último elemento de la estructura.
+     * @throws java.util.NoSuchElementException si la estructura es
+     *         vacía.
+     */
+    public T eliminaUltimo();
+
+    /**
+     * Regresa el primer elemento de la estructura.
+     * @return el primer elemento de la estructura.
+     * @throws java.util.NoSuchElementException si la estructura es
+     *         vacía.
+     */
+    public T getPrimero();
+
+    /**
+     * Regresa el último elemento de la estructura.
+     * @return el último elemento de la estructura.
+     * @throws java.util.NoSuchElementException si la estructura es
+     *         vacía.
+     */
+    public T getUltimo();
+
+    /**
+     * Agrega los elementos del arreglo al final de la estructura, en
+     * el orden en que aparecen en el arreglo.
+     * @param elementos los elementos a agregar.
+     */
+    public void agregaArreglo(T[] elementos);
+
+    /**
+     * Elimina hasta <tt>n</tt> elementos del inicio de la estructura
+     * y los guarda en el arreglo, del primero en adelante.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param n el número máximo de elementos a eliminar.
+     * @return el número de elementos eliminados, que es el mínimo
+     *         entre <tt>n</tt>, la longitud del arreglo y el número
+     *         de elementos en la estructura.
+     * @throws IllegalArgumentException si <tt>n</tt> es negativo.
+     */
+    public int eliminaPrimeros(T[] destino, int n);
+
+    /**
+     * Elimina hasta <tt>n</tt> elementos del final de la estructura
+     * y los guarda en el arreglo, del último hacia atrás.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param n el número máximo de elementos a eliminar.
+     * @return el número de elementos eliminados, que es el mínimo
+     *         entre <tt>n</tt>, la longitud del arreglo y el número
+     *         de elementos en la estructura.
+     * @throws IllegalArgumentException si <tt>n</tt> es negativo.
+     */
+    public int eliminaUltimos(T[] destino, int n);
+
+    /**
+     * Regresa el número de elementos en la estructura.
+     * @return el número de elementos en la estructura.
+     */
+    public int getLongitud();
+}
@@ -253,14 +253,8 @@ public class Grafica<T> implements Iterable<T> {
             throw new NoSuchElementException();
         if(!sonVecinos(a,b))
             throw new IllegalArgumentException();
-        for(Arista<T> arista : v2.aristas){
-            if(arista.vecino == v1)
-                v2.aristas.elimina(a);
-        }
-        for(Arista<T> arista : v1.aristas){
-            if(arista.vecino == v2)
-                v1.aristas.elimina(b);
-        }
+        v2.aristas.elimina(a);
+        v1.aristas.elimina(b);
         aristas--;
     }
 
@@ -283,8 +277,13 @@ public class Grafica<T> implements Iterable<T> {
     public void elimina(T elemento) {
         Vertice<T> ve = buscaVertice(elemento);
          if(ve != null){
+            /* desconecta modifica las aristas del vértice, así que
+             * no podemos desconectar mientras las recorremos. */
+            Lista<T> vecinos = new Lista<T>();
             for(Arista<T> arista : ve.aristas)
-                desconecta(arista.vecino.elemento,elemento);
+                vecinos.agregaFinal(arista.vecino.elemento);
+            for(T vecino : vecinos)
+                desconecta(vecino,elemento);
             vertices.elimina(elemento);
         }else
             throw new NoSuchElementException();
@@ -375,7 +374,7 @@ public class Grafica<T> implements Iterable<T> {
         Vertice<T> v = buscaVertice(elemento);
         if(v == null)
             throw new NoSuchElementException();
-        Cola<Vertice<T>> cola = new Cola<Vertice<T>>();
+        Cola<Vertice<T>> cola = new Cola<Vertice<T>>(new ArregloCircular<Vertice<T>>());
         recorridos(v,accion,cola);
     }
 
@@ -395,7 +394,7 @@ public class Grafica<T> implements Iterable<T> {
         Vertice<T> v = buscaVertice(elemento);
         if(v == null)
             throw new NoSuchElementException();
-        Pila<Vertice<T>> pila = new Pila<Vertice<T>>();
+        Pila<Vertice<T>> pila = new Pila<Vertice<T>>(new ArregloCircular<Vertice<T>>());
         recorridos(v,accion,pila);
     }
 
@@ -471,7 +470,7 @@ public class Grafica<T> implements Iterable<T> {
     Vertice<T> dest = buscaVertice(destino); 
     Lista<VerticeGrafica<T>> l=new Lista<VerticeGrafica<T>>(); 
     if(ori == null || dest == null) throw new NoSuchElementException();
-    Cola<Vertice<T>> cola = new Cola<Vertice<T>>(); cola.mete(ori); ori.color=Color.ROJO; 
+    Cola<Vertice<T>> cola = new Cola<Vertice<T>>(new ArregloCircular<Vertice<T>>()); cola.mete(ori); ori.color=Color.ROJO; 
     if(!auxiliar(cola, dest)) return l; l.agregaFinal(dest); auxiliar1(dest, l); return l; 
     }
 
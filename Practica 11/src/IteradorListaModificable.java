@@ -0,0 +1,24 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para iteradores de listas que, además de recorrerlas en
+ * ambas direcciones, pueden modificarlas en la posición del
+ * iterador. El método {@link java.util.Iterator#remove} elimina el
+ * último elemento regresado por {@link #next} o {@link #previous}.
+ */
+public interface IteradorListaModificable<T> extends IteradorLista<T> {
+
+    /**
+     * Agrega un elemento antes del iterador. Después de llamar este
+     * método, {@link #previous} regresa el elemento agregado.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaAntes(T elemento);
+
+    /**
+     * Agrega un elemento después del iterador. Después de llamar
+     * este método, {@link #next} regresa el elemento agregado.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaDespues(T elemento);
+}
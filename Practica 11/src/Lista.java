@@ -1,7 +1,17 @@
 package mx.unam.ciencias.edd;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>Clase genérica para listas doblemente ligadas.</p>
@@ -21,21 +31,41 @@ import java.util.NoSuchElementException;
  * <p>Además, se le puede pedir a una lista una instancia de {@link
  * IteradorLista} para recorrerla en ambas direcciones.</p>
  */
-public class Lista<T> implements Iterable<T> {
+public class Lista<T> implements Iterable<T>, DobleExtremo<T> {
 
     /* Clase Nodo privada para uso interno de la clase Lista. */
     private class Nodo<T> {
         public T elemento;
         public Nodo<T> anterior;
         public Nodo<T> siguiente;
+        /* Las ocurrencias anterior y siguiente del mismo elemento;
+         * sólo se usan si la lista está indexada. */
+        public Nodo<T> anteriorIgual;
+        public Nodo<T> siguienteIgual;
 
         public Nodo(T elemento) {
             this.elemento = elemento;
         }
     }
 
+    /* Clase Ocurrencias privada para el índice de elementos: el
+     * primer y último nodo que contienen al elemento, y cuántos lo
+     * contienen. Los nodos con el elemento están encadenados en el
+     * orden de la lista por anteriorIgual y siguienteIgual. */
+    private class Ocurrencias {
+        public Nodo<T> primera;
+        public Nodo<T> ultima;
+        public int cuenta;
+
+        public Ocurrencias(Nodo<T> primera) {
+            this.primera = ultima = primera;
+            primera.anteriorIgual = primera.siguienteIgual = null;
+            cuenta = 1;
+        }
+    }
+
     /* Clase Iterador privada para iteradores. */
-    private class Iterador<T> implements IteradorLista<T> {
+    private class Iterador<T> implements IteradorListaModificable<T> {
 
         /* La lista a iterar. */
         Lista<T> lista;
@@ -43,6 +73,11 @@ public class Lista<T> implements Iterable<T> {
         private Lista<T>.Nodo<T> anterior;
         /* Elemento siguiente. */
         private Lista<T>.Nodo<T> siguiente;
+        /* Último nodo regresado por next() o previous(); es el que
+         * elimina remove(). */
+        private Lista<T>.Nodo<T> ultimo;
+        /* Modificaciones de la lista que conoce el iterador. */
+        private int modificaciones;
 
         /* El constructor recibe una lista para inicializar su
          * siguiente con la cabeza. */
@@ -50,7 +85,14 @@ public class Lista<T> implements Iterable<T> {
             this.lista = lista;
             siguiente = lista.cabeza;
             anterior =null;
-        
+            modificaciones = lista.modificaciones;
+        }
+
+        /* Lanza ConcurrentModificationException si la lista fue
+         * modificada por alguien más que este iterador. */
+        private void revisa() {
+            if (modificaciones != lista.modificaciones)
+                throw new ConcurrentModificationException();
         }
 
         /* Existe un siguiente elemento, si el siguiente no es
@@ -65,10 +107,12 @@ public class Lista<T> implements Iterable<T> {
          * en cuyo caso lanza la excepción
          * NoSuchElementException. */
         @Override public T next() {
+            revisa();
             if(siguiente != null){
                 T t = siguiente.elemento;
                 anterior= siguiente;
                 siguiente= siguiente.siguiente;
+                ultimo = anterior;
                 return t;
             }
             else
@@ -88,10 +132,12 @@ public class Lista<T> implements Iterable<T> {
          * en cuyo caso lanza la excepción
          * NoSuchElementException. */
         @Override public T previous() {
+            revisa();
             if(anterior != null){
                 T t = anterior.elemento;
                 siguiente = anterior;
                 anterior = anterior.anterior;
+                ultimo = siguiente;
 
             return t;
         }
@@ -100,10 +146,41 @@ public class Lista<T> implements Iterable<T> {
 
         }
 
-        /* No implementamos el método remove(); sencillamente
-         * lanzamos la excepción UnsupportedOperationException. */
+        /* Elimina de la lista el último elemento regresado por
+         * next() o previous(), en tiempo constante. Lanza
+         * IllegalStateException si no hay tal elemento, o si ya se
+         * eliminó o se agregó un elemento después de regresarlo. */
         @Override public void remove() {
-            throw new UnsupportedOperationException();
+            revisa();
+            if (ultimo == null)
+                throw new IllegalStateException();
+            if (ultimo == anterior)
+                anterior = ultimo.anterior;
+            else
+                siguiente = ultimo.siguiente;
+            lista.desliga(ultimo);
+            ultimo = null;
+            modificaciones = lista.modificaciones;
+        }
+
+        /* Agrega un elemento antes del iterador, en tiempo
+         * constante; después de llamar este método, previous()
+         * regresa el elemento agregado. */
+        @Override public void agregaAntes(T elemento) {
+            revisa();
+            anterior = lista.liga(anterior, siguiente, elemento);
+            ultimo = null;
+            modificaciones = lista.modificaciones;
+        }
+
+        /* Agrega un elemento después del iterador, en tiempo
+         * constante; después de llamar este método, next() regresa
+         * el elemento agregado. */
+        @Override public void agregaDespues(T elemento) {
+            revisa();
+            siguiente = lista.liga(anterior, siguiente, elemento);
+            ultimo = null;
+            modificaciones = lista.modificaciones;
         }
 
         /* Mueve el iterador al inicio de la lista; después de
@@ -112,6 +189,8 @@ public class Lista<T> implements Iterable<T> {
         @Override public void start() {
            siguiente = lista.cabeza;
            anterior = null;
+           ultimo = null;
+           modificaciones = lista.modificaciones;
         }
 
         /* Mueve el iterador al final de la lista; después de llamar
@@ -121,6 +200,220 @@ public class Lista<T> implements Iterable<T> {
         @Override public void end() {
          anterior = lista.rabo;
          siguiente = null;
+         ultimo = null;
+         modificaciones = lista.modificaciones;
+        }
+    }
+
+    /* Clase Divisor privada para recorrer la lista con flujos. Cubre
+     * los restantes nodos que comienzan en actual, y se divide
+     * caminando al nodo en medio de ellos. */
+    private class Divisor implements Spliterator<T> {
+
+        /* El nodo del siguiente elemento. */
+        private Nodo<T> actual;
+        /* El número de elementos que faltan por recorrer; -1 si el
+         * divisor todavía no se liga a la lista. */
+        private int restantes;
+        /* Modificaciones de la lista que conoce el divisor. */
+        private int modificaciones;
+
+        /* Construye un divisor que se liga a la lista hasta que
+         * empieza a recorrerla. */
+        public Divisor() {
+            restantes = -1;
+        }
+
+        /* Construye un divisor para restantes elementos a partir del
+         * nodo actual, que conoce las modificaciones recibidas. */
+        private Divisor(Nodo<T> actual, int restantes, int modificaciones) {
+            this.actual = actual;
+            this.restantes = restantes;
+            this.modificaciones = modificaciones;
+        }
+
+        /* Si el divisor no se ha ligado a la lista, lo liga a su
+         * estado actual. */
+        private void liga() {
+            if (restantes != -1)
+                return;
+            actual = cabeza;
+            restantes = longitud;
+            modificaciones = Lista.this.modificaciones;
+        }
+
+        /* Lanza ConcurrentModificationException si la lista fue
+         * modificada después de que el divisor se ligó a ella. */
+        private void revisa() {
+            if (modificaciones != Lista.this.modificaciones)
+                throw new ConcurrentModificationException();
+        }
+
+        /* Realiza la acción en el siguiente elemento, si hay. */
+        @Override public boolean tryAdvance(Consumer<? super T> accion) {
+            liga();
+            revisa();
+            if (restantes == 0)
+                return false;
+            accion.accept(actual.elemento);
+            actual = actual.siguiente;
+            restantes--;
+            return true;
+        }
+
+        /* Realiza la acción en todos los elementos restantes. */
+        @Override public void forEachRemaining(Consumer<? super T> accion) {
+            liga();
+            revisa();
+            for (; restantes > 0; restantes--) {
+                accion.accept(actual.elemento);
+                actual = actual.siguiente;
+            }
+            revisa();
+        }
+
+        /* Regresa un divisor para la primera mitad de los elementos
+         * restantes, y se queda con la segunda. */
+        @Override public Spliterator<T> trySplit() {
+            liga();
+            revisa();
+            if (restantes < 2)
+                return null;
+            int mitad = restantes / 2;
+            Divisor d = new Divisor(actual, mitad, modificaciones);
+            actual = nodoEnMedio(actual, restantes);
+            restantes -= mitad;
+            return d;
+        }
+
+        /* Regresa el número exacto de elementos restantes. */
+        @Override public long estimateSize() {
+            liga();
+            return restantes;
+        }
+
+        /* Los divisores son ordenados y conocen su tamaño exacto, al
+         * igual que los que regresa trySplit(). */
+        @Override public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Clase para vistas de un rango de una lista, que regresa {@link
+     * Lista#subLista}. La vista no copia elementos: lee directamente
+     * los nodos de la lista. Si la lista se modifica estructuralmente
+     * después de crear la vista, las operaciones de la vista lanzan
+     * {@link ConcurrentModificationException}.
+     */
+    public class SubLista implements Iterable<T> {
+
+        /* El primer nodo de la vista. */
+        private Nodo<T> primero;
+        /* Número de elementos en la vista. */
+        private int longitud;
+        /* Modificaciones de la lista que conoce la vista. */
+        private int modificaciones;
+
+        /* Construye una vista de longitud elementos a partir del nodo
+         * primero. */
+        private SubLista(Nodo<T> primero, int longitud) {
+            this.primero = primero;
+            this.longitud = longitud;
+            modificaciones = Lista.this.modificaciones;
+        }
+
+        /* Lanza ConcurrentModificationException si la lista fue
+         * modificada después de crear la vista. */
+        private void revisa() {
+            if (modificaciones != Lista.this.modificaciones)
+                throw new ConcurrentModificationException();
+        }
+
+        /**
+         * Regresa el número de elementos en la vista.
+         * @return el número de elementos en la vista.
+         */
+        public int getLongitud() {
+            return longitud;
+        }
+
+        /**
+         * Regresa el <em>i</em>-ésimo elemento de la vista.
+         * @param i el índice, relativo a la vista, del elemento que
+         *        queremos.
+         * @return el <em>i</em>-ésimo elemento de la vista.
+         * @throws ExcepcionIndiceInvalido si el índice recibido es
+         *         menor que cero, o mayor que el número de elementos
+         *         en la vista menos uno.
+         */
+        public T get(int i) {
+            revisa();
+            if (i < 0 || i >= longitud)
+                throw new ExcepcionIndiceInvalido();
+            Nodo<T> n = primero;
+            while (i-- > 0)
+                n = n.siguiente;
+            return n.elemento;
+        }
+
+        /**
+         * Regresa una nueva lista con los elementos de la vista.
+         * @return una nueva lista con los elementos de la vista.
+         */
+        public Lista<T> aLista() {
+            revisa();
+            Lista<T> l = new Lista<T>();
+            Nodo<T> n = primero;
+            for (int i = 0; i < longitud; i++, n = n.siguiente)
+                l.agregaFinal(n.elemento);
+            return l;
+        }
+
+        /**
+         * Regresa una representación en cadena de la vista.
+         * @return una representación en cadena de la vista.
+         */
+        @Override public String toString() {
+            revisa();
+            StringBuilder sb = new StringBuilder("[");
+            Nodo<T> n = primero;
+            for (int i = 0; i < longitud; i++, n = n.siguiente) {
+                if (i > 0)
+                    sb.append(", ");
+                sb.append(n.elemento);
+            }
+            return sb.append("]").toString();
+        }
+
+        /**
+         * Regresa un iterador para recorrer la vista.
+         * @return un iterador para recorrer la vista.
+         */
+        @Override public Iterator<T> iterator() {
+            revisa();
+            return new Iterator<T>() {
+                private Nodo<T> siguiente = primero;
+                private int restantes = longitud;
+
+                @Override public boolean hasNext() {
+                    return restantes > 0;
+                }
+
+                @Override public T next() {
+                    revisa();
+                    if (restantes == 0)
+                        throw new NoSuchElementException();
+                    T t = siguiente.elemento;
+                    siguiente = siguiente.siguiente;
+                    restantes--;
+                    return t;
+                }
+
+                @Override public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
         }
     }
 
@@ -130,6 +423,73 @@ public class Lista<T> implements Iterable<T> {
     private Nodo<T> rabo;
     /* Número de elementos en la lista. */
     private int longitud;
+    /* Último nodo accedido por índice; null si no es válido. */
+    private Nodo<T> dedo;
+    /* Índice del último nodo accedido por índice. */
+    private int indiceDedo;
+    /* Número de modificaciones estructurales a la lista; los
+     * iteradores lo usan para detectar modificaciones concurrentes. */
+    private int modificaciones;
+    /* Índice de los elementos de la lista; null si la lista no está
+     * indexada. */
+    private HashMap<T, Ocurrencias> indice;
+    /* Reserva de nodos libres para reciclar, ligados por su
+     * siguiente. */
+    private Nodo<T> reserva;
+    /* Número de nodos en la reserva. */
+    private int nodosReserva;
+    /* Máximo número de nodos en la reserva; cero si no se reciclan
+     * nodos. */
+    private int capacidadReserva;
+
+    /**
+     * Construye una lista vacía que no recicla nodos.
+     */
+    public Lista() {
+    }
+
+    /**
+     * Construye una lista vacía que recicla nodos. Los nodos que
+     * liberan {@link #eliminaPrimero}, {@link #eliminaUltimo} y
+     * {@link #limpia} se guardan en una reserva de a lo más
+     * <tt>capacidadReserva</tt> nodos, y {@link #agregaFinal} y
+     * {@link #agregaInicio} los reutilizan antes de crear nodos
+     * nuevos. Esto reduce la basura que generan las listas usadas
+     * como colas o pilas, a cambio de retener hasta
+     * <tt>capacidadReserva</tt> nodos vacíos.
+     * @param capacidadReserva el máximo número de nodos a reciclar.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public Lista(int capacidadReserva) {
+        if (capacidadReserva < 0)
+            throw new IllegalArgumentException();
+        this.capacidadReserva = capacidadReserva;
+    }
+
+    /* Regresa un nodo con el elemento recibido, tomándolo de la
+     * reserva si hay alguno. */
+    private Nodo<T> nuevoNodo(T elemento) {
+        if (reserva == null)
+            return new Nodo<T>(elemento);
+        Nodo<T> n = reserva;
+        reserva = n.siguiente;
+        nodosReserva--;
+        n.siguiente = null;
+        n.elemento = elemento;
+        return n;
+    }
+
+    /* Guarda en la reserva un nodo ya desligado, si cabe. */
+    private void recicla(Nodo<T> n) {
+        if (nodosReserva == capacidadReserva)
+            return;
+        n.elemento = null;
+        n.anterior = null;
+        n.anteriorIgual = n.siguienteIgual = null;
+        n.siguiente = reserva;
+        reserva = n;
+        nodosReserva++;
+    }
 
    /**
      * Regresa una copia de la lista recibida, pero ordenada. La
@@ -140,103 +500,155 @@ public class Lista<T> implements Iterable<T> {
      */
     public static <T extends Comparable<T>>
         Lista<T> mergeSort(Lista<T> l) {
-            //lista de tamaño 1 o 0 ordenada por definicion
-            if(l.getLongitud() < 2)
-                return l.copia();
-            
-            Lista<T> l1 = new Lista<T>();
-            Lista<T>.Nodo<T> n = l.cabeza;
-            int i = 0, j = l.getLongitud()/2;
-            while(i < j){
-                if(n.siguiente != null){
-                l1.agregaFinal(n.elemento);
-            n = n.siguiente;
-            i++;
-                }else
-                    break;
-            }
-       
-            Lista<T> l2 = new Lista<T>();
-            Lista<T>.Nodo<T> nE = l.nodoEnMedio(l);
-            i = 0;
-            while (i < j){
-                if(nE.siguiente != null){
-                    l2.agregaFinal(nE.elemento);
-                    nE = nE.siguiente;
-                    i++;
-                }else
-                    break;
-            }
-            l2.agregaFinal(l.rabo.elemento);
-            l1 = mergeSort(l1);
-            l2 = mergeSort(l2); 
-            return l.mezcla(l1,l2);
+        return mergeSort(l, Comparator.<T>naturalOrder());
     }
 
-    /*
-    * Metodo privado auxiliar iterativo para obtener el nodo que está a la mitad
-    * Si la longitud es par regresa el nodo antes de la mitad
-    * SI la longitud es impar regresa el nodo que esta justo a la mitad
-    * @param La lista en la que se buscará el nodo central.
-    */
-    private Nodo<T> nodoEnMedio(Lista<T> l){
-       Nodo<T> n = l.cabeza;
-        if(n == null)
-            return n;
-        int i = 0, j = l.getLongitud()/2;
-        while(i < j){
-                n = n.siguiente;
-                i++;
-        }
-        return n;
+    /**
+     * Regresa una copia de la lista recibida, pero ordenada con el
+     * comparador recibido. Se crean exactamente tantos nodos como
+     * elementos tiene la lista, y la copia se ordena en su lugar.
+     * @param l la lista que se ordenará.
+     * @param comparador el comparador para ordenar los elementos.
+     * @return una copia de la lista recibida, pero ordenada.
+     */
+    public static <T> Lista<T> mergeSort(Lista<T> l,
+                                         Comparator<? super T> comparador) {
+        Lista<T> copia = new Lista<T>();
+        for (Lista<T>.Nodo<T> n = l.cabeza; n != null; n = n.siguiente)
+            copia.agregaFinal(n.elemento);
+        mergeSortEnLugar(copia, comparador);
+        return copia;
     }
 
     /**
-    * Metodo privado auxiliar recursivo para obtener el nodo que está a la mitad
-    * Si la longitud es par regresa el nodo antes de la mitad
-    * Si la longitud es impar regresa el nodo que esta justo a la mitad
-    * @param La lista en la que se buscará el nodo central.
-    * @param n la cabeza de la lista
-    * @param i indice para empezar a comparar con respecto a la longitud
-    */
-    private Nodo<T> nodoEnMedio(Nodo<T> n,Lista<T> l, int i,int j){
-        if(n == null)
-            return n;
-        if(i == j)
-            return n;
-        return nodoEnMedio(n.siguiente,l,++i,j);
+     * Regresa una copia de la lista recibida, pero ordenada usando
+     * MergeSort en paralelo, en la alberca común de hilos. La lista
+     * recibida tiene que contener nada más elementos que implementan
+     * la interfaz {@link Comparable}.
+     * @param l la lista que se ordenará.
+     * @return una copia de la lista recibida, pero ordenada.
+     */
+    public static <T extends Comparable<T>>
+        Lista<T> mergeSortParalelo(Lista<T> l) {
+        return mergeSortParalelo(l, Comparator.<T>naturalOrder(),
+                                 1 << 13, ForkJoinPool.commonPool());
     }
 
     /**
-    * Metodo auxiliar privado para mezclar los elementos de las listas
-    * @param l1 que recibe la lista izquierda
-    * @param l2 que recibe la lista derecha
-    */
-    private <T extends Comparable<T>> 
-        Lista<T> mezcla(Lista<T> l1, Lista<T> l2){
-            Lista<T> l = new Lista<T>();
-            Lista<T>.Nodo<T> n1 = l1.cabeza;
-            Lista<T>.Nodo<T> n2 = l2.cabeza;
-            while (n1!= null && n2!= null){
-                if(n1.elemento.compareTo(n2.elemento) < 0){
-                    l.agregaFinal(n1.elemento);
-                    n1 = n1.siguiente;
-                }else{
-                    l.agregaFinal(n2.elemento);
-                    n2 = n2.siguiente;
+     * Regresa una copia de la lista recibida, pero ordenada con el
+     * comparador recibido usando MergeSort en paralelo. Los
+     * elementos se copian a un arreglo, que se ordena con {@link
+     * Arreglos#mergeSortParalelo(Object[],Comparator,int,ForkJoinPool)}.
+     * @param l la lista que se ordenará.
+     * @param comparador el comparador para ordenar los elementos.
+     * @param umbral el tamaño a partir del cual se ordena en paralelo.
+     * @param alberca la alberca de hilos donde se ordena.
+     * @return una copia de la lista recibida, pero ordenada.
+     * @throws IllegalArgumentException si el umbral es menor que uno.
+     */
+    public static <T> Lista<T> mergeSortParalelo(Lista<T> l,
+                                                 Comparator<? super T> comparador,
+                                                 int umbral,
+                                                 ForkJoinPool alberca) {
+        @SuppressWarnings("unchecked") T[] a = (T[])new Object[l.longitud];
+        int i = 0;
+        for (Lista<T>.Nodo<T> n = l.cabeza; n != null; n = n.siguiente)
+            a[i++] = n.elemento;
+        Arreglos.mergeSortParalelo(a, comparador, umbral, alberca);
+        Lista<T> ordenada = new Lista<T>();
+        for (T e : a)
+            ordenada.agregaFinal(e);
+        return ordenada;
+    }
+
+    /**
+     * Ordena la lista recibida en su lugar. La lista recibida tiene
+     * que contener nada más elementos que implementan la interfaz
+     * {@link Comparable}.
+     * @param l la lista que se ordenará.
+     */
+    public static <T extends Comparable<T>>
+        void mergeSortEnLugar(Lista<T> l) {
+        mergeSortEnLugar(l, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Ordena la lista recibida en su lugar con el comparador
+     * recibido. El ordenamiento es estable, no crea nodos ni usa
+     * recursión: mezcla de abajo hacia arriba corridas de tamaño 1,
+     * 2, 4, ..., religando los nodos existentes.
+     * @param l la lista que se ordenará.
+     * @param comparador el comparador para ordenar los elementos.
+     */
+    public static <T> void mergeSortEnLugar(Lista<T> l,
+                                            Comparator<? super T> comparador) {
+        Lista<T>.Nodo<T> cabeza = l.cabeza;
+        if (cabeza == null)
+            return;
+        int mezclas;
+        int tam = 1;
+        do {
+            Lista<T>.Nodo<T> p = cabeza, ultimo = null;
+            cabeza = null;
+            mezclas = 0;
+            while (p != null) {
+                mezclas++;
+                /* p es la corrida izquierda y q la derecha, cada una
+                 * de a lo más tam nodos. */
+                Lista<T>.Nodo<T> q = p;
+                int tp = 0, tq = tam;
+                while (tp < tam && q != null) {
+                    q = q.siguiente;
+                    tp++;
                 }
+                while (tp > 0 || (tq > 0 && q != null)) {
+                    Lista<T>.Nodo<T> e;
+                    if (tp == 0 || (tq > 0 && q != null &&
+                        comparador.compare(q.elemento, p.elemento) < 0)) {
+                        e = q;
+                        q = q.siguiente;
+                        tq--;
+                    } else {
+                        e = p;
+                        p = p.siguiente;
+                        tp--;
+                    }
+                    if (ultimo == null)
+                        cabeza = e;
+                    else
+                        ultimo.siguiente = e;
+                    ultimo = e;
+                }
+                p = q;
             }
-            while(n1 != null){
-                l.agregaFinal(n1.elemento);
-                n1 =n1.siguiente;
-            }
-            while(n2 != null){
-                l.agregaFinal(n2.elemento);
-                n2 = n2.siguiente;
-            }
-            return l;
-    }   
-    
+            ultimo.siguiente = null;
+            tam *= 2;
+        } while (mezclas > 1);
+        /* Reconstruimos las referencias a los anteriores. */
+        Lista<T>.Nodo<T> anterior = null;
+        for (Lista<T>.Nodo<T> n = cabeza; n != null; n = n.siguiente) {
+            n.anterior = anterior;
+            anterior = n;
+        }
+        l.cabeza = cabeza;
+        l.rabo = anterior;
+        l.dedo = null;
+        l.modificaciones++;
+        if (l.indice != null)
+            l.indexa();
+    }
+
+    /*
+    * Metodo privado auxiliar iterativo para obtener el nodo que está a la
+    * mitad de los longitud nodos que comienzan en n.
+    * Si la longitud es par regresa el primer nodo de la segunda mitad
+    * Si la longitud es impar regresa el nodo que esta justo a la mitad
+    */
+    private Nodo<T> nodoEnMedio(Nodo<T> n, int longitud){
+        for (int i = 0; n != null && i < longitud/2; i++)
+            n = n.siguiente;
+        return n;
+    }
 
     /**
      * Busca un elemento en una lista ordenada. La lista recibida
@@ -284,7 +696,7 @@ public class Lista<T> implements Iterable<T> {
      * @param elemento el elemento a agregar.
      */
     public void agregaFinal(T elemento) {
-       Nodo<T> n = new Nodo<T>(elemento);
+       Nodo<T> n = nuevoNodo(elemento);
        if(rabo==null){
         cabeza = rabo = n;
        }
@@ -295,6 +707,9 @@ public class Lista<T> implements Iterable<T> {
         rabo = n;
        }
        longitud++;
+       modificaciones++;
+       if (indice != null)
+           registra(n);
     }
 
     /**
@@ -304,7 +719,7 @@ public class Lista<T> implements Iterable<T> {
      * @param elemento el elemento a agregar.
      */
     public void agregaInicio(T elemento) {
-        Nodo<T> n = new Nodo<T>(elemento);
+        Nodo<T> n = nuevoNodo(elemento);
         if(cabeza == null){
             cabeza = rabo = n;
 
@@ -316,55 +731,33 @@ public class Lista<T> implements Iterable<T> {
             cabeza = n;
         }
         longitud++;
+        dedo = null;
+        modificaciones++;
+        if (indice != null)
+            registra(n);
     }
-    /**
-    *Método auxiliar, busca un nodo
-    *@param nodo 
-    *@param elemento
-    *@return Nodo
-    */
-    public Nodo<T> buscaNodo(Nodo<T> nodo, T elemento){
-        if(nodo == null)
-            return null;
-        else
-            if(nodo.elemento.equals(elemento))
-                return nodo;
-            else
-            return buscaNodo(nodo.siguiente , elemento);
+
+    /* Regresa el primer nodo a partir de nodo que contiene al
+     * elemento, o null si no hay ninguno. */
+    private Nodo<T> buscaNodo(Nodo<T> nodo, T elemento){
+        if (indice != null) {
+            Ocurrencias o = indice.get(elemento);
+            return o == null ? null : o.primera;
+        }
+        while (nodo != null && !nodo.elemento.equals(elemento))
+            nodo = nodo.siguiente;
+        return nodo;
     }
+
     /**
      * Elimina un elemento de la lista. Si el elemento no está
      * contenido en la lista, el método no la modifica.
      * @param elemento el elemento a eliminar.
      */
     public void elimina(T elemento) {
-        
         Nodo<T> n = buscaNodo(cabeza, elemento);
-        if(n == null){
-           return;
-        }
-        
-        else  
-            if(cabeza == rabo){
-                cabeza = rabo = null;
-            }
-            else
-                if(n == cabeza){
-                    cabeza = cabeza.siguiente;
-                    cabeza.anterior = null;
-                }
-                else
-                    if(n == rabo){
-                        rabo = rabo.anterior;
-                        rabo.siguiente = null;
-                    }
-                    else{
-                        n.anterior.siguiente = n.siguiente;
-                        n.siguiente.anterior = n.anterior;
-
-                    }
-                    longitud--;
-                    
+        if (n != null)
+            desliga(n);
     }
 
     /**
@@ -373,27 +766,13 @@ public class Lista<T> implements Iterable<T> {
      * @throws NoSuchElementException si la lista es vacía.
      */
     public T eliminaPrimero() {
-        if(cabeza == null){
+        if (cabeza == null)
             throw new NoSuchElementException();
-        }
-        
-        else 
-            
-            if(cabeza == rabo){
-                T t = cabeza.elemento;
-        longitud--;
-                cabeza = rabo = null;
-                return t;
-            }
-            
-        else{
-          T t = cabeza.elemento;
-        longitud--;
-            cabeza = cabeza.siguiente;
-            cabeza.anterior = null;
-            return t;
-        }
-    
+        Nodo<T> n = cabeza;
+        T t = n.elemento;
+        desliga(n);
+        recicla(n);
+        return t;
     }
 
     /**
@@ -402,28 +781,214 @@ public class Lista<T> implements Iterable<T> {
      * @throws NoSuchElementException si la lista es vacía.
      */
     public T eliminaUltimo() {
-        
-        if(rabo == null){
+        if (rabo == null)
             throw new NoSuchElementException();
-        }
-        
-        else 
-            
-            if(cabeza == rabo){
-                T t = rabo.elemento;
+        Nodo<T> n = rabo;
+        T t = n.elemento;
+        desliga(n);
+        recicla(n);
+        return t;
+    }
+
+    /**
+     * Agrega los elementos del arreglo al final de la lista, en el
+     * orden en que aparecen en el arreglo.
+     * @param elementos los elementos a agregar.
+     */
+    @Override public void agregaArreglo(T[] elementos) {
+        agregaTodos(Arrays.asList(elementos));
+    }
+
+    /**
+     * Elimina hasta <tt>n</tt> elementos del inicio de la lista y los
+     * guarda en el arreglo, del primero en adelante.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param n el número máximo de elementos a eliminar.
+     * @return el número de elementos eliminados.
+     * @throws IllegalArgumentException si <tt>n</tt> es negativo.
+     */
+    @Override public int eliminaPrimeros(T[] destino, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        n = Math.min(n, Math.min(destino.length, longitud));
+        for (int i = 0; i < n; i++)
+            destino[i] = eliminaPrimero();
+        return n;
+    }
+
+    /**
+     * Elimina hasta <tt>n</tt> elementos del final de la lista y los
+     * guarda en el arreglo, del último hacia atrás.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param n el número máximo de elementos a eliminar.
+     * @return el número de elementos eliminados.
+     * @throws IllegalArgumentException si <tt>n</tt> es negativo.
+     */
+    @Override public int eliminaUltimos(T[] destino, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        n = Math.min(n, Math.min(destino.length, longitud));
+        for (int i = 0; i < n; i++)
+            destino[i] = eliminaUltimo();
+        return n;
+    }
+
+    /* Desliga el nodo recibido de la lista. */
+    private void desliga(Nodo<T> n) {
+        if (indice != null)
+            olvida(n);
+        if (n.anterior == null)
+            cabeza = n.siguiente;
+        else
+            n.anterior.siguiente = n.siguiente;
+        if (n.siguiente == null)
+            rabo = n.anterior;
+        else
+            n.siguiente.anterior = n.anterior;
         longitud--;
-                cabeza = rabo = null;
-                return t;
+        dedo = null;
+        modificaciones++;
+    }
+
+    /* Crea un nodo con el elemento y lo liga entre los nodos
+     * anterior y siguiente, que deben ser contiguos; un nulo indica
+     * un extremo de la lista. Regresa el nodo creado. */
+    private Nodo<T> liga(Nodo<T> anterior, Nodo<T> siguiente, T elemento) {
+        Nodo<T> n = nuevoNodo(elemento);
+        n.anterior = anterior;
+        n.siguiente = siguiente;
+        if (anterior == null)
+            cabeza = n;
+        else
+            anterior.siguiente = n;
+        if (siguiente == null)
+            rabo = n;
+        else
+            siguiente.anterior = n;
+        longitud++;
+        dedo = null;
+        modificaciones++;
+        if (indice != null)
+            registra(n);
+        return n;
+    }
+
+    /* Registra en el índice un nodo recién ligado, encadenándolo
+     * entre las ocurrencias de su elemento. Al agregar al inicio o
+     * al final esto toma tiempo constante; en medio de la lista se
+     * busca la ocurrencia más cercana hacia ambos lados, así que el
+     * tiempo es proporcional a la distancia a ella. */
+    private void registra(Nodo<T> n) {
+        Ocurrencias o = indice.get(n.elemento);
+        if (o == null) {
+            indice.put(n.elemento, new Ocurrencias(n));
+            return;
+        }
+        o.cuenta++;
+        Nodo<T> izq = n.anterior, der = n.siguiente;
+        while (true) {
+            if (izq == null) {
+                encadenaAntes(o, o.primera, n);
+                return;
             }
-            
-        else{
-          T t = rabo.elemento;
-        longitud--;
-            rabo = rabo.anterior;
-            rabo.siguiente = null;
-            return t;
+            if (der == null) {
+                encadenaDespues(o, o.ultima, n);
+                return;
+            }
+            if (izq.elemento.equals(n.elemento)) {
+                encadenaDespues(o, izq, n);
+                return;
+            }
+            if (der.elemento.equals(n.elemento)) {
+                encadenaAntes(o, der, n);
+                return;
+            }
+            izq = izq.anterior;
+            der = der.siguiente;
         }
-        
+    }
+
+    /* Encadena n después de la ocurrencia m. */
+    private void encadenaDespues(Ocurrencias o, Nodo<T> m, Nodo<T> n) {
+        n.anteriorIgual = m;
+        n.siguienteIgual = m.siguienteIgual;
+        if (m.siguienteIgual == null)
+            o.ultima = n;
+        else
+            m.siguienteIgual.anteriorIgual = n;
+        m.siguienteIgual = n;
+    }
+
+    /* Encadena n antes de la ocurrencia m. */
+    private void encadenaAntes(Ocurrencias o, Nodo<T> m, Nodo<T> n) {
+        n.siguienteIgual = m;
+        n.anteriorIgual = m.anteriorIgual;
+        if (m.anteriorIgual == null)
+            o.primera = n;
+        else
+            m.anteriorIgual.siguienteIgual = n;
+        m.anteriorIgual = n;
+    }
+
+    /* Olvida en el índice un nodo que va a desligarse, sacándolo de
+     * la cadena de ocurrencias de su elemento en tiempo constante. */
+    private void olvida(Nodo<T> n) {
+        Ocurrencias o = indice.get(n.elemento);
+        if (--o.cuenta == 0) {
+            indice.remove(n.elemento);
+        } else {
+            if (n.anteriorIgual == null)
+                o.primera = n.siguienteIgual;
+            else
+                n.anteriorIgual.siguienteIgual = n.siguienteIgual;
+            if (n.siguienteIgual == null)
+                o.ultima = n.anteriorIgual;
+            else
+                n.siguienteIgual.anteriorIgual = n.anteriorIgual;
+        }
+        n.anteriorIgual = n.siguienteIgual = null;
+    }
+
+    /**
+     * Indexa la lista. Una lista indexada mantiene un diccionario
+     * de sus elementos a sus primeras ocurrencias, de tal forma que
+     * {@link #contiene} y {@link #elimina} toman tiempo constante
+     * esperado en lugar de recorrer la lista, a cambio de memoria
+     * extra y de actualizar el índice en cada modificación. Agregar
+     * o eliminar en los extremos sigue tomando tiempo constante;
+     * insertar en medio con el iterador toma tiempo proporcional a
+     * la distancia a la ocurrencia más cercana del mismo elemento.
+     * Los elementos deben implementar {@link Object#hashCode} de forma
+     * consistente con {@link Object#equals}. Si la lista ya estaba
+     * indexada, el índice se reconstruye.
+     */
+    public void indexa() {
+        indice = new HashMap<T, Ocurrencias>();
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente) {
+            Ocurrencias o = indice.get(n.elemento);
+            if (o == null) {
+                indice.put(n.elemento, new Ocurrencias(n));
+            } else {
+                o.cuenta++;
+                encadenaDespues(o, o.ultima, n);
+            }
+        }
+    }
+
+    /**
+     * Descarta el índice de la lista, si lo tenía.
+     */
+    public void desindexa() {
+        indice = null;
+    }
+
+    /**
+     * Nos dice si la lista está indexada.
+     * @return <tt>true</tt> si la lista está indexada,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean estaIndexada() {
+        return indice != null;
     }
 
     /**
@@ -434,10 +999,7 @@ public class Lista<T> implements Iterable<T> {
      *         <tt>false</tt> en otro caso.
      */
     public boolean contiene(T elemento) {
-      Nodo<T> n = buscaNodo(cabeza, elemento);
-      
-            return n!= null; 
-        
+        return buscaNodo(cabeza, elemento) != null;
     }
 
     /**
@@ -484,8 +1046,148 @@ public class Lista<T> implements Iterable<T> {
      * equivalente a eliminar todos los elementos de la lista.
      */
     public void limpia() {
+        Nodo<T> n = cabeza;
+        while (n != null && nodosReserva < capacidadReserva) {
+            Nodo<T> s = n.siguiente;
+            recicla(n);
+            n = s;
+        }
         cabeza = rabo = null;
         longitud = 0;
+        dedo = null;
+        modificaciones++;
+        if (indice != null)
+            indice.clear();
+    }
+
+    /**
+     * Agrega al final de la lista los elementos de la lista
+     * recibida, robándole sus nodos: no se crean nodos nuevos, y la
+     * lista recibida queda vacía. Toma tiempo constante, salvo que
+     * alguna de las listas esté indexada, en cuyo caso el índice se
+     * actualiza en tiempo lineal.
+     * @param l la lista cuyos elementos se agregarán.
+     * @throws IllegalArgumentException si l es la misma lista.
+     */
+    public void concatena(Lista<T> l) {
+        if (l == this)
+            throw new IllegalArgumentException();
+        if (l.cabeza == null)
+            return;
+        if (rabo == null) {
+            cabeza = l.cabeza;
+        } else {
+            rabo.siguiente = l.cabeza;
+            l.cabeza.anterior = rabo;
+        }
+        rabo = l.rabo;
+        longitud += l.longitud;
+        modificaciones++;
+        if (indice != null)
+            indexa();
+        l.cabeza = l.rabo = null;
+        l.longitud = 0;
+        l.dedo = null;
+        l.modificaciones++;
+        if (l.indice != null)
+            l.indice.clear();
+    }
+
+    /**
+     * Agrega al final de la lista todos los elementos recibidos, en
+     * orden. Los nodos se encadenan aparte y se ligan a la lista
+     * hasta que se recorrieron todos los elementos, así que si el
+     * recorrido lanza una excepción la lista no se modifica. La
+     * longitud y el contador de modificaciones se actualizan una sola
+     * vez.
+     * @param elementos los elementos a agregar.
+     */
+    public void agregaTodos(Iterable<? extends T> elementos) {
+        if (elementos == this) {
+            if (cabeza == null)
+                return;
+            elementos = copia();
+        }
+        Nodo<T> primero = null, ultimo = null;
+        int n = 0;
+        for (T e : elementos) {
+            Nodo<T> nodo = nuevoNodo(e);
+            if (primero == null)
+                primero = nodo;
+            else
+                ultimo.siguiente = nodo;
+            ultimo = nodo;
+            n++;
+        }
+        for (Nodo<T> nodo = primero, siguiente; nodo != null;
+             nodo = siguiente) {
+            siguiente = nodo.siguiente;
+            nodo.siguiente = null;
+            if (rabo == null) {
+                cabeza = rabo = nodo;
+            } else {
+                rabo.siguiente = nodo;
+                nodo.anterior = rabo;
+                rabo = nodo;
+            }
+            if (indice != null)
+                registra(nodo);
+        }
+        longitud += n;
+        modificaciones++;
+    }
+
+    /**
+     * Regresa una vista de los elementos de la lista con índices
+     * desde <tt>desde</tt> (inclusive) hasta <tt>hasta</tt>
+     * (exclusive). No se copia ningún elemento; sólo se busca el
+     * primer nodo del rango.
+     * @param desde el índice del primer elemento de la vista.
+     * @param hasta el índice siguiente al último elemento de la
+     *        vista.
+     * @return una vista de los elementos en el rango.
+     * @throws ExcepcionIndiceInvalido si el rango no es válido.
+     */
+    public SubLista subLista(int desde, int hasta) {
+        if (desde < 0 || hasta > longitud || desde > hasta)
+            throw new ExcepcionIndiceInvalido();
+        Nodo<T> primero = desde == longitud ? null : nodo(desde);
+        return new SubLista(primero, hasta - desde);
+    }
+
+    /**
+     * Divide la lista en el índice recibido: la lista se queda con
+     * los elementos antes del índice, y se regresa una nueva lista
+     * con los elementos a partir del índice. Los nodos no se copian;
+     * sólo se camina hasta el nodo en el índice, desde el extremo más
+     * cercano. Si la lista está indexada, su índice se reconstruye.
+     * @param i el índice del primer elemento de la nueva lista.
+     * @return una nueva lista con los elementos a partir de i.
+     * @throws ExcepcionIndiceInvalido si el índice es menor que cero
+     *         o mayor que la longitud de la lista.
+     */
+    public Lista<T> divide(int i) {
+        if (i < 0 || i > longitud)
+            throw new ExcepcionIndiceInvalido();
+        Lista<T> l = new Lista<T>();
+        if (i == longitud)
+            return l;
+        Nodo<T> n = nodo(i);
+        l.cabeza = n;
+        l.rabo = rabo;
+        l.longitud = longitud - i;
+        rabo = n.anterior;
+        if (rabo == null)
+            cabeza = null;
+        else
+            rabo.siguiente = null;
+        n.anterior = null;
+        longitud = i;
+        dedo = null;
+        modificaciones++;
+        if (indice != null)
+            indexa();
+        return l;
     }
 
     /**
@@ -524,29 +1226,36 @@ public class Lista<T> implements Iterable<T> {
      *         la lista menos uno.
      */
     public T get(int i) {
-        T t = null;
-        Nodo<T> n = cabeza;
-        int x = 0;
-        if(i< 0 || i > getLongitud()-1)
+        if (i < 0 || i >= longitud)
             throw new ExcepcionIndiceInvalido();
-        
-        else
-            if(i == 0){
-                return cabeza.elemento;
-            }
-            else 
-                if(i == getLongitud()-1){
-                    return rabo.elemento;
-                }
-            
-            while(x<i) {
-            if(n != null)
-                   n = n.siguiente;
-                x++;
-            }  
-             t = n.elemento;
+        return nodo(i).elemento;
+    }
 
-        return t;
+    /* Regresa el nodo en el índice i, que se supone válido. Camina
+     * desde la cabeza, el rabo o el dedo, el que esté más cerca, y
+     * deja el dedo en el nodo encontrado. */
+    private Nodo<T> nodo(int i) {
+        Nodo<T> n = cabeza;
+        int k = 0;
+        if (longitud - 1 - i < i) {
+            n = rabo;
+            k = longitud - 1;
+        }
+        if (dedo != null && Math.abs(indiceDedo - i) < Math.abs(k - i)) {
+            n = dedo;
+            k = indiceDedo;
+        }
+        while (k < i) {
+            n = n.siguiente;
+            k++;
+        }
+        while (k > i) {
+            n = n.anterior;
+            k--;
+        }
+        dedo = n;
+        indiceDedo = i;
+        return n;
     }
 
     /**
@@ -558,11 +1267,13 @@ public class Lista<T> implements Iterable<T> {
     public int indiceDe(T elemento) {
         int i = 0;
         Nodo<T> n = cabeza;
-        if(n == null)
+        if(n == null || (indice != null && !indice.containsKey(elemento)))
             return -1;
 
         while(n != null){
             if(n.elemento.equals(elemento)){
+                dedo = n;
+                indiceDedo = i;
                 return i;
             }
             else{
@@ -588,21 +1299,19 @@ public class Lista<T> implements Iterable<T> {
                 return false;
             }
             @SuppressWarnings("unchecked") Lista<T> l = (Lista<T>) o;
-      
-         return sonIguales(cabeza, l.cabeza);
+        if (longitud != l.longitud)
+            return false;
+        return sonIguales(cabeza, l.cabeza);
     }
 
     private boolean sonIguales(Nodo<T> n1, Nodo<T> n2){
-        if(n1 == null && n2 == null){
-            return true;
-        }
-        else
-            if(n1 == null || n2 == null){
-            return false;
+        while (n1 != null && n2 != null) {
+            if (!n1.elemento.equals(n2.elemento))
+                return false;
+            n1 = n1.siguiente;
+            n2 = n2.siguiente;
         }
-        else
-            return n1.elemento.equals(n2.elemento) && sonIguales(n1.siguiente, n2.siguiente);
-
+        return n1 == null && n2 == null;
     }
 
     /**
@@ -610,18 +1319,34 @@ public class Lista<T> implements Iterable<T> {
      * @return una representación en cadena de la lista.
      */
     @Override public String toString() {
-            
-            if(cabeza == null)
-                return "[]";
-            Nodo<T> n = cabeza.siguiente;
-            String cadena = "";
-            while(n != null){
-                cadena += ", " + n.elemento;
-                n  = n.siguiente;
-            }
-            return "[" + cabeza.elemento + cadena + "]";
+        StringBuilder sb = new StringBuilder("[");
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente) {
+            if (n != cabeza)
+                sb.append(", ");
+            sb.append(n.elemento);
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Escribe la representación en cadena de la lista en la salida
+     * recibida, elemento por elemento, sin construirla completa en
+     * memoria. Lo escrito es idéntico a lo que regresa {@link
+     * #toString}.
+     * @param salida la salida donde se escribirá la lista; puede ser
+     *        un {@link java.io.Writer} o un {@link StringBuilder}, por
+     *        ejemplo.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public void escribe(Appendable salida) throws IOException {
+        salida.append('[');
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente) {
+            if (n != cabeza)
+                salida.append(", ");
+            salida.append(String.valueOf(n.elemento));
+        }
+        salida.append(']');
     }
-   
 
     /**
      * Regresa un iterador para recorrer la lista.
@@ -634,12 +1359,46 @@ public class Lista<T> implements Iterable<T> {
 
     /**
      * Regresa un iterador para recorrer la lista en ambas
-     * direcciones.
+     * direcciones. El iterador puede además eliminar y agregar
+     * elementos en su posición en tiempo constante; si la lista se
+     * modifica por otro medio, el iterador lanza {@link
+     * ConcurrentModificationException}.
      * @return un iterador para recorrer la lista en ambas
      * direcciones.
      */
-    public IteradorLista<T> iteradorLista() {
+    public IteradorListaModificable<T> iteradorLista() {
     
         return new Iterador<T>(this);
     }
+
+    /**
+     * Regresa un divisor para recorrer la lista con flujos. El
+     * divisor conoce el número exacto de elementos, y se divide a la
+     * mitad para recorrer la lista en paralelo. El divisor se liga a
+     * la lista cuando empieza a recorrerla, dividirla o estimar su
+     * tamaño; si la lista se modifica estructuralmente después de
+     * eso, el divisor lanza {@link ConcurrentModificationException}.
+     * @return un divisor para recorrer la lista.
+     */
+    @Override public Spliterator<T> spliterator() {
+        return new Divisor();
+    }
+
+    /**
+     * Regresa un flujo secuencial con los elementos de la lista.
+     * @return un flujo secuencial con los elementos de la lista.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Regresa un flujo, posiblemente paralelo, con los elementos de
+     * la lista.
+     * @return un flujo posiblemente paralelo con los elementos de la
+     *         lista.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
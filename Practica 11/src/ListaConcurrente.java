@@ -0,0 +1,210 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * <p>Clase genérica para listas doblemente ligadas concurrentes.</p>
+ *
+ * <p>La clase ofrece las operaciones de {@link Lista} para agregar y
+ * eliminar elementos en los extremos, pero varios hilos pueden
+ * usarla al mismo tiempo sin sincronización externa. Ninguna
+ * operación usa candados: todas se implementan con operaciones
+ * atómicas de comparar e intercambiar sobre los nodos, así que un
+ * hilo detenido nunca bloquea a los demás, y productores y
+ * consumidores en extremos distintos no compiten por un candado
+ * común. Internamente se usa {@link ConcurrentLinkedDeque}.</p>
+ *
+ * <p>Las operaciones sobre los extremos (agregar, eliminar y
+ * consultar el primero o el último), {@link #elimina}, {@link
+ * #esVacia} y los métodos <tt>intenta</tt> son atómicas
+ * (linealizables). Las que recorren la lista no lo son: los
+ * recorridos son débilmente consistentes, nunca lanzan {@link
+ * java.util.ConcurrentModificationException}, regresan cada elemento
+ * a lo más una vez, y pueden o no ver las modificaciones hechas
+ * después de crear el iterador. Por lo mismo, {@link #getLongitud},
+ * {@link #limpia}, {@link #contiene}, {@link #aLista} y {@link
+ * #toString} pueden no reflejar un estado único de la lista si otros
+ * hilos la modifican al mismo tiempo.</p>
+ *
+ * <p>La lista no acepta elementos nulos.</p>
+ */
+public class ListaConcurrente<T> implements Iterable<T> {
+
+    /* La lista subyaciente. */
+    private final ConcurrentLinkedDeque<T> lista;
+
+    /**
+     * Construye una lista concurrente vacía.
+     */
+    public ListaConcurrente() {
+        lista = new ConcurrentLinkedDeque<T>();
+    }
+
+    /**
+     * Construye una lista concurrente con los elementos de la lista
+     * recibida, en el mismo orden.
+     * @param l la lista de donde se toman los elementos.
+     * @throws NullPointerException si algún elemento es nulo.
+     */
+    public ListaConcurrente(Lista<T> l) {
+        this();
+        for (T e : l)
+            lista.addLast(e);
+    }
+
+    /**
+     * Regresa la longitud de la lista. A diferencia de {@link
+     * Lista#getLongitud}, el método recorre la lista, y si otros
+     * hilos la modifican mientras tanto el resultado puede no ser
+     * exacto.
+     * @return la longitud de la lista.
+     */
+    public int getLongitud() {
+        return lista.size();
+    }
+
+    /**
+     * Nos dice si la lista es vacía.
+     * @return <tt>true</tt> si la lista no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean esVacia() {
+        return lista.isEmpty();
+    }
+
+    /**
+     * Agrega un elemento al final de la lista.
+     * @param elemento el elemento a agregar.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public void agregaFinal(T elemento) {
+        lista.addLast(elemento);
+    }
+
+    /**
+     * Agrega un elemento al inicio de la lista.
+     * @param elemento el elemento a agregar.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    public void agregaInicio(T elemento) {
+        lista.addFirst(elemento);
+    }
+
+    /**
+     * Elimina la primera ocurrencia de un elemento de la lista. Si
+     * el elemento no está contenido en la lista, el método no la
+     * modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    public void elimina(T elemento) {
+        lista.removeFirstOccurrence(elemento);
+    }
+
+    /**
+     * Elimina el primer elemento de la lista y lo regresa.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaPrimero() {
+        return lista.removeFirst();
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaUltimo() {
+        return lista.removeLast();
+    }
+
+    /**
+     * Elimina el primer elemento de la lista y lo regresa, o regresa
+     * <tt>null</tt> si la lista es vacía. Es útil cuando otro hilo
+     * puede vaciar la lista entre una llamada a {@link #esVacia} y
+     * una a {@link #eliminaPrimero}.
+     * @return el primer elemento de la lista, o <tt>null</tt> si es
+     *         vacía.
+     */
+    public T intentaEliminarPrimero() {
+        return lista.pollFirst();
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa, o regresa
+     * <tt>null</tt> si la lista es vacía.
+     * @return el último elemento de la lista, o <tt>null</tt> si es
+     *         vacía.
+     */
+    public T intentaEliminarUltimo() {
+        return lista.pollLast();
+    }
+
+    /**
+     * Regresa el primer elemento de la lista.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getPrimero() {
+        return lista.getFirst();
+    }
+
+    /**
+     * Regresa el último elemento de la lista.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getUltimo() {
+        return lista.getLast();
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la
+     * lista.
+     * @return <tt>true</tt> si <tt>elemento</tt> está en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return lista.contains(elemento);
+    }
+
+    /**
+     * Limpia la lista de elementos. Si otros hilos agregan elementos
+     * al mismo tiempo, éstos pueden o no quedar en la lista.
+     */
+    public void limpia() {
+        lista.clear();
+    }
+
+    /**
+     * Regresa una {@link Lista} con los elementos de la lista
+     * concurrente, en el mismo orden. La copia es débilmente
+     * consistente, igual que los recorridos.
+     * @return una lista con los elementos de la lista concurrente.
+     */
+    public Lista<T> aLista() {
+        Lista<T> l = new Lista<T>();
+        for (T e : lista)
+            l.agregaFinal(e);
+        return l;
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        return lista.toString();
+    }
+
+    /**
+     * Regresa un iterador débilmente consistente para recorrer la
+     * lista.
+     * @return un iterador para recorrer la lista.
+     */
+    @Override public Iterator<T> iterator() {
+        return lista.iterator();
+    }
+}
@@ -0,0 +1,506 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase genérica para listas desenrolladas.</p>
+ *
+ * <p>Una lista desenrollada ofrece las mismas operaciones que {@link
+ * Lista}, pero en lugar de usar un nodo por elemento, guarda los
+ * elementos en bloques doblemente ligados, cada uno con un arreglo
+ * contiguo de elementos y el número de elementos que contiene. Esto
+ * reduce la memoria usada por elemento, y hace que recorrer la lista
+ * visite memoria contigua.</p>
+ *
+ * <p>Ningún bloque de la lista está vacío; cuando un bloque se queda
+ * sin elementos se desliga de la lista, y cuando dos bloques
+ * contiguos caben en uno solo, se mezclan.</p>
+ *
+ * <p>Los elementos de un bloque ocupan un intervalo contiguo de su
+ * arreglo que no necesariamente empieza en cero: el bloque que se
+ * crea al agregar al inicio se llena de atrás hacia adelante, y al
+ * eliminar el primer elemento de un bloque sólo se recorre su
+ * inicio. Así agregar y eliminar en cualquiera de los dos extremos
+ * de la lista toma tiempo constante, sin desplazar los elementos del
+ * bloque.</p>
+ */
+public class ListaDesenrollada<T> implements Iterable<T> {
+
+    /* Capacidad predeterminada de los bloques. */
+    private static final int CAPACIDAD_BLOQUE = 64;
+
+    /* Clase Bloque privada para uso interno de la clase. */
+    private class Bloque {
+        /* Los elementos del bloque. */
+        public Object[] elementos;
+        /* La posición del primer elemento en el arreglo. */
+        public int inicio;
+        /* El número de elementos en el bloque. */
+        public int cuenta;
+        /* El bloque anterior. */
+        public Bloque anterior;
+        /* El bloque siguiente. */
+        public Bloque siguiente;
+
+        public Bloque() {
+            elementos = new Object[capacidad];
+        }
+
+        /* Regresa el i-ésimo elemento del bloque. */
+        @SuppressWarnings("unchecked") public T get(int i) {
+            return (T)elementos[inicio + i];
+        }
+
+        /* Elimina el elemento en la posición i del bloque y lo
+         * regresa, recorriendo el lado más corto del bloque. */
+        public T elimina(int i) {
+            T t = get(i);
+            if (i < cuenta / 2) {
+                System.arraycopy(elementos, inicio, elementos, inicio+1, i);
+                elementos[inicio++] = null;
+            } else {
+                System.arraycopy(elementos, inicio+i+1,
+                                 elementos, inicio+i, cuenta - i - 1);
+                elementos[inicio + cuenta - 1] = null;
+            }
+            cuenta--;
+            return t;
+        }
+
+        /* Recorre los elementos del bloque al inicio de su
+         * arreglo. */
+        public void compacta() {
+            if (inicio == 0)
+                return;
+            System.arraycopy(elementos, inicio, elementos, 0, cuenta);
+            Arrays.fill(elementos, Math.max(cuenta, inicio),
+                        inicio + cuenta, null);
+            inicio = 0;
+        }
+    }
+
+    /* Clase Iterador privada para iteradores. */
+    private class Iterador implements IteradorLista<T> {
+
+        /* El bloque del elemento siguiente; null si estamos al
+         * final. */
+        private Bloque bloque;
+        /* El índice del elemento siguiente dentro del bloque. */
+        private int indice;
+
+        /* Construye un iterador al inicio de la lista. */
+        public Iterador() {
+            start();
+        }
+
+        /* Existe un siguiente elemento, si el bloque no es nulo. */
+        @Override public boolean hasNext() {
+            return bloque != null;
+        }
+
+        /* Regresa el elemento siguiente y avanza el iterador. */
+        @Override public T next() {
+            if (bloque == null)
+                throw new NoSuchElementException();
+            T t = bloque.get(indice++);
+            if (indice == bloque.cuenta) {
+                bloque = bloque.siguiente;
+                indice = 0;
+            }
+            return t;
+        }
+
+        /* Existe un elemento anterior, si no estamos en el primer
+         * elemento del primer bloque. */
+        @Override public boolean hasPrevious() {
+            if (bloque == null)
+                return rabo != null;
+            return indice > 0 || bloque.anterior != null;
+        }
+
+        /* Regresa el elemento anterior y retrocede el iterador. */
+        @Override public T previous() {
+            if (bloque == null) {
+                if (rabo == null)
+                    throw new NoSuchElementException();
+                bloque = rabo;
+                indice = rabo.cuenta - 1;
+            } else if (indice > 0) {
+                indice--;
+            } else if (bloque.anterior != null) {
+                bloque = bloque.anterior;
+                indice = bloque.cuenta - 1;
+            } else {
+                throw new NoSuchElementException();
+            }
+            return bloque.get(indice);
+        }
+
+        /* No implementamos el método remove(); sencillamente
+         * lanzamos la excepción UnsupportedOperationException. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /* Mueve el iterador al inicio de la lista. */
+        @Override public void start() {
+            bloque = cabeza;
+            indice = 0;
+        }
+
+        /* Mueve el iterador al final de la lista. */
+        @Override public void end() {
+            bloque = null;
+            indice = 0;
+        }
+    }
+
+    /* Primer bloque de la lista. */
+    private Bloque cabeza;
+    /* Último bloque de la lista. */
+    private Bloque rabo;
+    /* Número de elementos en la lista. */
+    private int longitud;
+    /* Capacidad de cada bloque. */
+    private int capacidad;
+
+    /**
+     * Construye una lista desenrollada vacía, con bloques de la
+     * capacidad predeterminada.
+     */
+    public ListaDesenrollada() {
+        this(CAPACIDAD_BLOQUE);
+    }
+
+    /**
+     * Construye una lista desenrollada vacía, con bloques de la
+     * capacidad recibida.
+     * @param capacidad el número de elementos que cabe en cada
+     *        bloque.
+     * @throws IllegalArgumentException si la capacidad es menor que
+     *         dos.
+     */
+    public ListaDesenrollada(int capacidad) {
+        if (capacidad < 2)
+            throw new IllegalArgumentException();
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Regresa la longitud de la lista.
+     * @return la longitud de la lista, el número de elementos que
+     * contiene.
+     */
+    public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Agrega un elemento al final de la lista. Si la lista no
+     * tiene elementos, el elemento a agregar será el primero y
+     * último.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaFinal(T elemento) {
+        if (rabo == null || rabo.inicio + rabo.cuenta == capacidad) {
+            Bloque b = new Bloque();
+            if (rabo == null) {
+                cabeza = rabo = b;
+            } else {
+                rabo.siguiente = b;
+                b.anterior = rabo;
+                rabo = b;
+            }
+        }
+        rabo.elementos[rabo.inicio + rabo.cuenta++] = elemento;
+        longitud++;
+    }
+
+    /**
+     * Agrega un elemento al inicio de la lista. Si la lista no
+     * tiene elementos, el elemento a agregar será el primero y
+     * último.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaInicio(T elemento) {
+        if (cabeza == null || cabeza.inicio == 0) {
+            Bloque b = new Bloque();
+            b.inicio = capacidad;
+            if (cabeza == null) {
+                cabeza = rabo = b;
+            } else {
+                cabeza.anterior = b;
+                b.siguiente = cabeza;
+                cabeza = b;
+            }
+        }
+        cabeza.elementos[--cabeza.inicio] = elemento;
+        cabeza.cuenta++;
+        longitud++;
+    }
+
+    /**
+     * Elimina un elemento de la lista. Si el elemento no está
+     * contenido en la lista, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    public void elimina(T elemento) {
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.cuenta; i++)
+                if (b.get(i).equals(elemento)) {
+                    elimina(b, i);
+                    return;
+                }
+    }
+
+    /* Elimina el elemento en la posición i del bloque, y mantiene
+     * los invariantes de los bloques. */
+    private T elimina(Bloque b, int i) {
+        T t = b.elimina(i);
+        longitud--;
+        if (b.cuenta == 0)
+            desliga(b);
+        else if (b.siguiente != null &&
+                 b.cuenta + b.siguiente.cuenta <= capacidad)
+            mezcla(b, b.siguiente);
+        else if (b.anterior != null &&
+                 b.anterior.cuenta + b.cuenta <= capacidad)
+            mezcla(b.anterior, b);
+        return t;
+    }
+
+    /* Desliga un bloque de la lista. */
+    private void desliga(Bloque b) {
+        if (b.anterior == null)
+            cabeza = b.siguiente;
+        else
+            b.anterior.siguiente = b.siguiente;
+        if (b.siguiente == null)
+            rabo = b.anterior;
+        else
+            b.siguiente.anterior = b.anterior;
+    }
+
+    /* Pasa los elementos del bloque b al final del bloque a, y
+     * desliga b. */
+    private void mezcla(Bloque a, Bloque b) {
+        if (a.inicio + a.cuenta + b.cuenta > capacidad)
+            a.compacta();
+        System.arraycopy(b.elementos, b.inicio,
+                         a.elementos, a.inicio + a.cuenta, b.cuenta);
+        a.cuenta += b.cuenta;
+        desliga(b);
+    }
+
+    /**
+     * Elimina el primer elemento de la lista y lo regresa.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaPrimero() {
+        if (cabeza == null)
+            throw new NoSuchElementException();
+        return elimina(cabeza, 0);
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaUltimo() {
+        if (rabo == null)
+            throw new NoSuchElementException();
+        return elimina(rabo, rabo.cuenta - 1);
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la
+     * lista.
+     * @return <tt>true</tt> si <tt>elemento</tt> está en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return indiceDe(elemento) != -1;
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa la que manda llamar
+     *         el método.
+     */
+    public ListaDesenrollada<T> reversa() {
+        ListaDesenrollada<T> l = new ListaDesenrollada<T>(capacidad);
+        for (Bloque b = rabo; b != null; b = b.anterior)
+            for (int i = b.cuenta - 1; i >= 0; i--)
+                l.agregaFinal(b.get(i));
+        return l;
+    }
+
+    /**
+     * Regresa una copia de la lista. La copia tiene los mismos
+     * elementos que la lista que manda llamar el método, en el
+     * mismo orden.
+     * @return una copiad de la lista.
+     */
+    public ListaDesenrollada<T> copia() {
+        ListaDesenrollada<T> l = new ListaDesenrollada<T>(capacidad);
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.cuenta; i++)
+                l.agregaFinal(b.get(i));
+        return l;
+    }
+
+    /**
+     * Limpia la lista de elementos. El llamar este método es
+     * equivalente a eliminar todos los elementos de la lista.
+     */
+    public void limpia() {
+        cabeza = rabo = null;
+        longitud = 0;
+    }
+
+    /**
+     * Regresa el primer elemento de la lista.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getPrimero() {
+        if (cabeza == null)
+            throw new NoSuchElementException();
+        return cabeza.get(0);
+    }
+
+    /**
+     * Regresa el último elemento de la lista.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getUltimo() {
+        if (rabo == null)
+            throw new NoSuchElementException();
+        return rabo.get(rabo.cuenta - 1);
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista. Sólo se
+     * recorren bloques, no elementos, hasta llegar al bloque que
+     * contiene el índice; desde el rabo si el índice está en la
+     * segunda mitad de la lista.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista, si
+     *         <em>i</em> es mayor o igual que cero y menor que el
+     *         número de elementos en la lista.
+     * @throws ExcepcionIndiceInvalido si el índice recibido es
+     *         menor que cero, o mayor que el número de elementos en
+     *         la lista menos uno.
+     */
+    public T get(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido();
+        if (i < longitud / 2) {
+            Bloque b = cabeza;
+            while (i >= b.cuenta) {
+                i -= b.cuenta;
+                b = b.siguiente;
+            }
+            return b.get(i);
+        }
+        int j = longitud - 1 - i;
+        Bloque b = rabo;
+        while (j >= b.cuenta) {
+            j -= b.cuenta;
+            b = b.anterior;
+        }
+        return b.get(b.cuenta - 1 - j);
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si
+     *         el elemento no está contenido en la lista.
+     */
+    public int indiceDe(T elemento) {
+        int base = 0;
+        for (Bloque b = cabeza; b != null; b = b.siguiente) {
+            for (int i = 0; i < b.cuenta; i++)
+                if (b.get(i).equals(elemento))
+                    return base + i;
+            base += b.cuenta;
+        }
+        return -1;
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido. Dos listas
+     * desenrolladas son iguales si tienen los mismos elementos en el
+     * mismo orden, sin importar cómo estén repartidos en bloques.
+     * @param o el objeto con el que hay que comparar.
+     * @return <tt>true</tt> si la lista es igual al objeto
+     *         recibido; <tt>false</tt> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") ListaDesenrollada<T> l =
+            (ListaDesenrollada<T>)o;
+        if (longitud != l.longitud)
+            return false;
+        Iterator<T> i1 = iterator(), i2 = l.iterator();
+        while (i1.hasNext())
+            if (!i1.next().equals(i2.next()))
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la lista, consistente con
+     * {@link #equals}: sólo depende de los elementos y su orden, no
+     * de cómo estén repartidos en bloques.
+     * @return un código de dispersión para la lista.
+     */
+    @Override public int hashCode() {
+        int h = 1;
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.cuenta; i++)
+                h = 31 * h + b.get(i).hashCode();
+        return h;
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.cuenta; i++) {
+                if (b != cabeza || i > 0)
+                    sb.append(", ");
+                sb.append(b.get(i));
+            }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista.
+     * @return un iterador para recorrer la lista.
+     */
+    @Override public Iterator<T> iterator() {
+        return iteradorLista();
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista en ambas
+     * direcciones.
+     * @return un iterador para recorrer la lista en ambas
+     * direcciones.
+     */
+    public IteradorLista<T> iteradorLista() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,339 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>Clase para listas de elementos de tipo <tt>double</tt>.</p>
+ *
+ * <p>La clase ofrece las operaciones de {@link Lista}, pero guarda
+ * los elementos directamente en un arreglo circular de
+ * <tt>double</tt>, así que agregarlos y recorrerlos nunca los envuelve
+ * en objetos {@link Double}. Agregar al inicio o al final, y eliminar
+ * el primero o el último, toma tiempo constante amortizado.</p>
+ *
+ * <p>Para recorrer la lista sin envolver a los elementos se usa el
+ * iterador primitivo que regresa {@link #iterador}:</p>
+ *
+<pre>
+    PrimitiveIterator.OfDouble i = l.iterador();
+    while (i.hasNext())
+        System.out.println(i.nextDouble());
+</pre>
+ */
+public class ListaDouble {
+
+    /* Capacidad inicial del arreglo; siempre es potencia de dos. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /* Clase Iterador privada para iteradores. */
+    private class Iterador implements PrimitiveIterator.OfDouble {
+
+        /* Índice en la lista del elemento siguiente. */
+        private int siguiente;
+
+        /* Existe un siguiente elemento, si el índice es menor que la
+         * longitud. */
+        @Override public boolean hasNext() {
+            return siguiente < longitud;
+        }
+
+        /* Regresa el elemento siguiente, a menos que no haya, en
+         * cuyo caso lanza la excepción NoSuchElementException. */
+        @Override public double nextDouble() {
+            if (siguiente >= longitud)
+                throw new NoSuchElementException();
+            return elementos[indice(siguiente++)];
+        }
+    }
+
+    /* Los elementos de la lista, en un arreglo circular. */
+    private double[] elementos;
+    /* Posición en el arreglo del primer elemento. */
+    private int inicio;
+    /* Número de elementos en la lista. */
+    private int longitud;
+
+    /**
+     * Construye una lista vacía.
+     */
+    public ListaDouble() {
+        elementos = new double[CAPACIDAD_INICIAL];
+    }
+
+    /* Regresa la posición en el arreglo del i-ésimo elemento. */
+    private int indice(int i) {
+        return (inicio + i) & (elementos.length - 1);
+    }
+
+    /* Duplica el arreglo si ya no caben más elementos. */
+    private void crece() {
+        if (longitud < elementos.length)
+            return;
+        double[] nuevo = new double[elementos.length * 2];
+        int n = elementos.length - inicio;
+        System.arraycopy(elementos, inicio, nuevo, 0, n);
+        System.arraycopy(elementos, 0, nuevo, n, inicio);
+        elementos = nuevo;
+        inicio = 0;
+    }
+
+    /**
+     * Regresa la longitud de la lista.
+     * @return la longitud de la lista, el número de elementos que
+     * contiene.
+     */
+    public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Agrega un elemento al final de la lista.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaFinal(double elemento) {
+        crece();
+        elementos[indice(longitud++)] = elemento;
+    }
+
+    /**
+     * Agrega un elemento al inicio de la lista.
+     * @param elemento el elemento a agregar.
+     */
+    public void agregaInicio(double elemento) {
+        crece();
+        inicio = (inicio - 1) & (elementos.length - 1);
+        elementos[inicio] = elemento;
+        longitud++;
+    }
+
+    /**
+     * Elimina un elemento de la lista. Si el elemento no está
+     * contenido en la lista, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    public void elimina(double elemento) {
+        int i = indiceDe(elemento);
+        if (i == -1)
+            return;
+        /* Recorremos la mitad más corta de la lista. */
+        if (i < longitud / 2) {
+            for (int k = i; k > 0; k--)
+                elementos[indice(k)] = elementos[indice(k-1)];
+            inicio = indice(1);
+        } else {
+            for (int k = i; k < longitud - 1; k++)
+                elementos[indice(k)] = elementos[indice(k+1)];
+        }
+        longitud--;
+    }
+
+    /**
+     * Elimina el primer elemento de la lista y lo regresa.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public double eliminaPrimero() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        double e = elementos[inicio];
+        inicio = indice(1);
+        longitud--;
+        return e;
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public double eliminaUltimo() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        return elementos[indice(--longitud)];
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la
+     * lista.
+     * @return <tt>true</tt> si <tt>elemento</tt> está en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(double elemento) {
+        return indiceDe(elemento) != -1;
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa la que manda llamar
+     *         el método.
+     */
+    public ListaDouble reversa() {
+        ListaDouble l = new ListaDouble();
+        for (int i = longitud - 1; i >= 0; i--)
+            l.agregaFinal(elementos[indice(i)]);
+        return l;
+    }
+
+    /**
+     * Regresa una copia de la lista. La copia tiene los mismos
+     * elementos que la lista que manda llamar el método, en el
+     * mismo orden.
+     * @return una copia de la lista.
+     */
+    public ListaDouble copia() {
+        ListaDouble l = new ListaDouble();
+        l.elementos = new double[elementos.length];
+        l.longitud = longitud;
+        aArreglo(l.elementos);
+        return l;
+    }
+
+    /* Copia los elementos en orden al inicio del arreglo recibido. */
+    private void aArreglo(double[] a) {
+        int n = Math.min(longitud, elementos.length - inicio);
+        System.arraycopy(elementos, inicio, a, 0, n);
+        System.arraycopy(elementos, 0, a, n, longitud - n);
+    }
+
+    /**
+     * Regresa un arreglo con los elementos de la lista, en orden.
+     * @return un arreglo con los elementos de la lista.
+     */
+    public double[] aArreglo() {
+        double[] a = new double[longitud];
+        aArreglo(a);
+        return a;
+    }
+
+    /**
+     * Limpia la lista de elementos. El llamar este método es
+     * equivalente a eliminar todos los elementos de la lista.
+     */
+    public void limpia() {
+        inicio = longitud = 0;
+    }
+
+    /**
+     * Regresa el primer elemento de la lista.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public double getPrimero() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        return elementos[inicio];
+    }
+
+    /**
+     * Regresa el último elemento de la lista.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public double getUltimo() {
+        if (longitud == 0)
+            throw new NoSuchElementException();
+        return elementos[indice(longitud - 1)];
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista, en tiempo
+     * constante.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista.
+     * @throws ExcepcionIndiceInvalido si el índice recibido es
+     *         menor que cero, o mayor que el número de elementos en
+     *         la lista menos uno.
+     */
+    public double get(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido();
+        return elementos[indice(i)];
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista. Los elementos
+     * se comparan como lo hace {@link Double#equals}, así que
+     * <tt>NaN</tt> se encuentra a sí mismo y <tt>0.0</tt> es distinto
+     * de <tt>-0.0</tt>.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si
+     *         el elemento no está contenido en la lista.
+     */
+    public int indiceDe(double elemento) {
+        for (int i = 0; i < longitud; i++)
+            if (Double.compare(elementos[indice(i)], elemento) == 0)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Regresa una copia de la lista recibida, pero ordenada. Los
+     * elementos se ordenan directamente en un arreglo de
+     * <tt>double</tt>. Igual que
+     * en {@link Arrays#sort(double[])}, <tt>-0.0</tt> queda antes que
+     * <tt>0.0</tt> y los <tt>NaN</tt> quedan al final.
+     * @param l la lista que se ordenará.
+     * @return una copia de la lista recibida, pero ordenada.
+     */
+    public static ListaDouble mergeSort(ListaDouble l) {
+        ListaDouble c = l.copia();
+        Arrays.sort(c.elementos, 0, c.longitud);
+        return c;
+    }
+
+    /**
+     * Regresa un iterador primitivo para recorrer la lista.
+     * @return un iterador primitivo para recorrer la lista.
+     */
+    public PrimitiveIterator.OfDouble iterador() {
+        return new Iterador();
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido.
+     * @param o el objeto con el que hay que comparar.
+     * @return <tt>true</tt> si la lista es igual al objeto
+     *         recibido; <tt>false</tt> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ListaDouble l = (ListaDouble)o;
+        if (longitud != l.longitud)
+            return false;
+        for (int i = 0; i < longitud; i++)
+            if (Double.compare(elementos[indice(i)], l.elementos[l.indice(i)]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la lista, consistente con
+     * {@link #equals} y con {@link
+     * java.util.Arrays#hashCode(double[])} sobre sus elementos.
+     * @return un código de dispersión para la lista.
+     */
+    @Override public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < longitud; i++)
+            h = 31 * h + Double.hashCode(elementos[indice(i)]);
+        return h;
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < longitud; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elementos[indice(i)]);
+        }
+        return sb.append("]").toString();
+    }
+}
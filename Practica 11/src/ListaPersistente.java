@@ -0,0 +1,283 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase genérica para listas persistentes.</p>
+ *
+ * <p>Una lista persistente nunca se modifica: las operaciones que en
+ * {@link Lista} modificarían la lista, aquí regresan una nueva lista
+ * y dejan intacta la original. Las listas comparten su estructura,
+ * así que agregar al inicio o eliminar el primer elemento toma tiempo
+ * constante y no copia ningún nodo; la nueva lista reutiliza todos
+ * los nodos de la original.</p>
+ *
+ * <p>Como ninguna lista cambia nunca, varios hilos pueden leer la
+ * misma versión sin sincronización, y quien guarda una referencia a
+ * una lista siempre ve la misma versión, sin importar las que se
+ * publiquen después.</p>
+ */
+public class ListaPersistente<T> implements Iterable<T> {
+
+    /* Clase Nodo privada para uso interno de la clase. Los nodos son
+     * inmutables. */
+    private static class Nodo<T> {
+        public final T elemento;
+        public final Nodo<T> siguiente;
+
+        public Nodo(T elemento, Nodo<T> siguiente) {
+            this.elemento = elemento;
+            this.siguiente = siguiente;
+        }
+    }
+
+    /* Clase Iterador privada para iteradores. */
+    private static class Iterador<T> implements Iterator<T> {
+
+        /* El nodo del siguiente elemento. */
+        private Nodo<T> siguiente;
+
+        public Iterador(Nodo<T> cabeza) {
+            siguiente = cabeza;
+        }
+
+        /* Existe un siguiente elemento, si el siguiente no es
+         * nulo. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa el elemento del siguiente, a menos que sea nulo,
+         * en cuyo caso lanza la excepción
+         * NoSuchElementException. */
+        @Override public T next() {
+            if (siguiente == null)
+                throw new NoSuchElementException();
+            T t = siguiente.elemento;
+            siguiente = siguiente.siguiente;
+            return t;
+        }
+
+        /* Las listas persistentes no se modifican. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* La lista vacía; se comparte entre todos los tipos. */
+    private static final ListaPersistente<Object> VACIA =
+        new ListaPersistente<Object>(null, 0);
+
+    /* Primer elemento de la lista. */
+    private final Nodo<T> cabeza;
+    /* Número de elementos en la lista. */
+    private final int longitud;
+
+    /* Construye una lista a partir de su cabeza y su longitud. */
+    private ListaPersistente(Nodo<T> cabeza, int longitud) {
+        this.cabeza = cabeza;
+        this.longitud = longitud;
+    }
+
+    /**
+     * Regresa la lista persistente vacía.
+     * @return la lista persistente vacía.
+     */
+    @SuppressWarnings("unchecked") public static <T> ListaPersistente<T> vacia() {
+        return (ListaPersistente<T>)VACIA;
+    }
+
+    /**
+     * Regresa una lista persistente con los elementos de la lista
+     * recibida, en el mismo orden.
+     * @param l la lista de donde se toman los elementos.
+     * @return una lista persistente con los elementos de l.
+     */
+    public static <T> ListaPersistente<T> deLista(Lista<T> l) {
+        ListaPersistente<T> p = vacia();
+        IteradorLista<T> i = l.iteradorLista();
+        i.end();
+        while (i.hasPrevious())
+            p = p.agregaInicio(i.previous());
+        return p;
+    }
+
+    /**
+     * Regresa una {@link Lista} con los elementos de la lista
+     * persistente, en el mismo orden.
+     * @return una lista con los elementos de la lista persistente.
+     */
+    public Lista<T> aLista() {
+        Lista<T> l = new Lista<T>();
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente)
+            l.agregaFinal(n.elemento);
+        return l;
+    }
+
+    /**
+     * Regresa la longitud de la lista.
+     * @return la longitud de la lista, el número de elementos que
+     * contiene.
+     */
+    public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Nos dice si la lista es vacía.
+     * @return <tt>true</tt> si la lista no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean esVacia() {
+        return cabeza == null;
+    }
+
+    /**
+     * Regresa una nueva lista con el elemento recibido al inicio,
+     * seguido de los elementos de esta lista. Toma tiempo constante.
+     * @param elemento el elemento a agregar.
+     * @return una nueva lista con el elemento al inicio.
+     */
+    public ListaPersistente<T> agregaInicio(T elemento) {
+        return new ListaPersistente<T>(new Nodo<T>(elemento, cabeza),
+                                       longitud + 1);
+    }
+
+    /**
+     * Regresa una nueva lista con los elementos de esta lista,
+     * menos el primero. Toma tiempo constante.
+     * @return una nueva lista sin el primer elemento.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public ListaPersistente<T> eliminaPrimero() {
+        if (cabeza == null)
+            throw new NoSuchElementException();
+        if (cabeza.siguiente == null)
+            return vacia();
+        return new ListaPersistente<T>(cabeza.siguiente, longitud - 1);
+    }
+
+    /**
+     * Regresa el primer elemento de la lista.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getPrimero() {
+        if (cabeza == null)
+            throw new NoSuchElementException();
+        return cabeza.elemento;
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista.
+     * @throws ExcepcionIndiceInvalido si el índice recibido es
+     *         menor que cero, o mayor que el número de elementos en
+     *         la lista menos uno.
+     */
+    public T get(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido();
+        Nodo<T> n = cabeza;
+        while (i-- > 0)
+            n = n.siguiente;
+        return n.elemento;
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si
+     *         el elemento no está contenido en la lista.
+     */
+    public int indiceDe(T elemento) {
+        int i = 0;
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente, i++)
+            if (n.elemento.equals(elemento))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la
+     * lista.
+     * @return <tt>true</tt> si <tt>elemento</tt> está en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return indiceDe(elemento) != -1;
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa de la que manda
+     *         llamar el método.
+     */
+    public ListaPersistente<T> reversa() {
+        ListaPersistente<T> p = vacia();
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente)
+            p = p.agregaInicio(n.elemento);
+        return p;
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido.
+     * @param o el objeto con el que hay que comparar.
+     * @return <tt>true</tt> si la lista es igual al objeto
+     *         recibido; <tt>false</tt> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") ListaPersistente<T> l =
+            (ListaPersistente<T>)o;
+        if (longitud != l.longitud)
+            return false;
+        Nodo<T> n1 = cabeza, n2 = l.cabeza;
+        /* Si las listas comparten la cola, ya no hay que comparar. */
+        while (n1 != n2) {
+            if (!n1.elemento.equals(n2.elemento))
+                return false;
+            n1 = n1.siguiente;
+            n2 = n2.siguiente;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un código de dispersión para la lista, consistente con
+     * {@link #equals}.
+     * @return un código de dispersión para la lista.
+     */
+    @Override public int hashCode() {
+        int h = 1;
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente)
+            h = 31 * h + n.elemento.hashCode();
+        return h;
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Nodo<T> n = cabeza; n != null; n = n.siguiente) {
+            if (n != cabeza)
+                sb.append(", ");
+            sb.append(n.elemento);
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista.
+     * @return un iterador para recorrer la lista.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador<T>(cabeza);
+    }
+}
@@ -1,28 +1,76 @@
 package mx.unam.ciencias.edd;
 
+import java.util.function.Consumer;
+
 /**
  * Clase abtracta para estructuras lineales restringidas a
- * operaciones mete/saca/mira, todas ocupando una lista subyaciente.
+ * operaciones mete/saca/mira. La clase no dice cómo se guardan los
+ * elementos; {@link MeteSacaDobleExtremo} los guarda en una
+ * estructura de doble extremo, y es la que extienden {@link Cola} y
+ * {@link Pila}.
  */
 public abstract class MeteSaca<T> {
 
-    /** Lista subyaciente. */
-    protected Lista<T> lista;
+    /**
+     * Agrega un elemento a la estructura.
+     * @param elemento el elemento a agregar.
+     */
+    public abstract void mete(T elemento);
+
+    /**
+     * Agrega todos los elementos del arreglo a la estructura, en el
+     * orden en que aparecen en el arreglo.
+     * @param elementos los elementos a agregar.
+     */
+    public void meteTodos(T[] elementos) {
+        for (T e : elementos)
+            mete(e);
+    }
 
+    /**
+     * Agrega todos los elementos recibidos a la estructura, en el
+     * orden en que se recorren.
+     * @param elementos los elementos a agregar.
+     */
+    public void meteTodos(Iterable<? extends T> elementos) {
+        for (T e : elementos)
+            mete(e);
+    }
 
     /**
-     * Constructor único que incializa la lista.
+     * Saca hasta <tt>maximo</tt> elementos de la estructura y los
+     * guarda en el arreglo, en el orden en que salen.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron, que es el
+     *         mínimo entre <tt>maximo</tt>, la longitud del arreglo y
+     *         el número de elementos en la estructura.
+     * @throws IllegalArgumentException si el máximo es negativo.
      */
-    public MeteSaca() {
-  lista = new Lista<T>();
+    public int sacaHasta(T[] destino, int maximo) {
+        if (maximo < 0)
+            throw new IllegalArgumentException();
+        maximo = Math.min(maximo, destino.length);
+        int n = 0;
+        while (n < maximo && !esVacia())
+            destino[n++] = saca();
+        return n;
     }
 
     /**
-     * Agrega un elemento a la estructura.
-     * @param elemento el elemento a agregar.
+     * Saca todos los elementos de la estructura, en el orden en que
+     * salen, y le aplica la acción recibida a cada uno. Si la acción
+     * mete elementos, también se sacan.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
      */
-    public void mete(T elemento) {
-        lista.agregaFinal(elemento);
+    public int drena(Consumer<? super T> accion) {
+        int n = 0;
+        while (!esVacia()) {
+            accion.accept(saca());
+            n++;
+        }
+        return n;
     }
 
     /**
@@ -45,10 +93,5 @@ public abstract class MeteSaca<T> {
      * @return <tt>true</tt> si la estructura no tiene elementos,
      *         <tt>false</tt> en otro caso.
      */
-    public boolean esVacia() {
-        if(lista.getLongitud()== 0)
-        	return true;
-        else
-        	return false;
-        }
+    public abstract boolean esVacia();
 }
@@ -0,0 +1,57 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase abtracta para estructuras mete/saca que ocupan una
+ * estructura de doble extremo subyaciente. Por omisión la estructura
+ * es una {@link Lista}, pero puede usarse cualquier {@link
+ * DobleExtremo}, como un {@link ArregloCircular}.
+ */
+public abstract class MeteSacaDobleExtremo<T> extends MeteSaca<T> {
+
+    /** Estructura subyaciente. */
+    protected DobleExtremo<T> lista;
+
+    /**
+     * Constructor que inicializa una lista vacía.
+     */
+    public MeteSacaDobleExtremo() {
+        lista = new Lista<T>();
+    }
+
+    /**
+     * Constructor que inicializa una lista que recicla hasta
+     * <tt>capacidadReserva</tt> nodos; vea {@link Lista#Lista(int)}.
+     * @param capacidadReserva el máximo número de nodos a reciclar.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public MeteSacaDobleExtremo(int capacidadReserva) {
+        lista = new Lista<T>(capacidadReserva);
+    }
+
+    /**
+     * Constructor que usa la estructura recibida como
+     * almacenamiento. La estructura no debe modificarse por fuera
+     * después de esto.
+     * @param lista la estructura subyaciente.
+     */
+    public MeteSacaDobleExtremo(DobleExtremo<T> lista) {
+        this.lista = lista;
+    }
+
+    /**
+     * Agrega un elemento a la estructura.
+     * @param elemento el elemento a agregar.
+     */
+    @Override public void mete(T elemento) {
+        lista.agregaFinal(elemento);
+    }
+
+    /**
+     * Nos dice si la estructura está vacía.
+     * @return <tt>true</tt> si la estructura no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return lista.getLongitud() == 0;
+    }
+}
@@ -0,0 +1,69 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase abstracta para estructuras lineales de <tt>long</tt> restringidas
+ * a operaciones mete/saca/mira, todas ocupando una {@link ListaLong}
+ * subyaciente. Es la versión primitiva de {@link MeteSaca}: los
+ * elementos se guardan directamente en un arreglo de <tt>long</tt>,
+ * sin envolverlos en objetos, así que meter y sacar elementos no
+ * crea basura.
+ */
+public abstract class MeteSacaLong {
+
+    /** Lista subyaciente. */
+    protected ListaLong lista;
+
+    /**
+     * Constructor único que inicializa la lista.
+     */
+    public MeteSacaLong() {
+        lista = new ListaLong();
+    }
+
+    /**
+     * Agrega un elemento a la estructura.
+     * @param elemento el elemento a agregar.
+     */
+    public void mete(long elemento) {
+        lista.agregaFinal(elemento);
+    }
+
+    /**
+     * Elimina un elemento de la estructura y lo regresa.
+     * @return el elemento eliminado.
+     * @throws NoSuchElementException si la estructura está vacía.
+     */
+    public abstract long saca();
+
+    /**
+     * Nos permite ver el elemento en un extremo de la estructura,
+     * sin sacarlo de la misma.
+     * @return el elemento en un extremo de la estructura.
+     * @throws NoSuchElementException si la estructura está vacía.
+     */
+    public abstract long mira();
+
+    /**
+     * Nos dice si la estructura está vacía.
+     * @return <tt>true</tt> si la estructura no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean esVacia() {
+        return lista.getLongitud() == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la estructura.
+     * @return el número de elementos en la estructura.
+     */
+    public int getLongitud() {
+        return lista.getLongitud();
+    }
+
+    /**
+     * Elimina todos los elementos de la estructura.
+     */
+    public void limpia() {
+        lista.limpia();
+    }
+}
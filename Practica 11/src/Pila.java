@@ -1,9 +1,11 @@
 package mx.unam.ciencias.edd;
 
+import java.util.function.Consumer;
+
 /**
  * Clase para pilas genéricas.
  */
-public class Pila<T> extends MeteSaca<T> {
+public class Pila<T> extends MeteSacaDobleExtremo<T> {
 
     /**
      * Construye una pila vacía.
@@ -12,6 +14,26 @@ public class Pila<T> extends MeteSaca<T> {
  	Pila<T> p = null;
      }
 
+    /**
+     * Construye una pila vacía que recicla hasta
+     * <tt>capacidadReserva</tt> nodos, para no generar basura al
+     * meter y sacar elementos continuamente.
+     * @param capacidadReserva el máximo número de nodos a reciclar.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public Pila(int capacidadReserva) {
+        super(capacidadReserva);
+    }
+
+    /**
+     * Construye una pila vacía que usa la estructura recibida como
+     * almacenamiento; por ejemplo, un {@link ArregloCircular}.
+     * @param almacen la estructura subyaciente, que debe estar vacía.
+     */
+    public Pila(DobleExtremo<T> almacen) {
+        super(almacen);
+    }
+
     /**
      * Elimina el elemento en el tope de la pila y lo regresa.
      * @return el elemento en el tope de la pila.
@@ -20,6 +42,44 @@ public class Pila<T> extends MeteSaca<T> {
         return lista.eliminaUltimo();
     }
 
+    /**
+     * Agrega todos los elementos del arreglo a la pila, en el orden en
+     * que aparecen en el arreglo, con una sola operación sobre la
+     * estructura subyaciente.
+     * @param elementos los elementos a agregar.
+     */
+    @Override public void meteTodos(T[] elementos) {
+        lista.agregaArreglo(elementos);
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos en el tope de la pila y los guarda
+     * en el arreglo, en el orden en que salen, con una sola
+     * operación sobre la estructura subyaciente.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    @Override public int sacaHasta(T[] destino, int maximo) {
+        return lista.eliminaUltimos(destino, maximo);
+    }
+
+    /**
+     * Saca todos los elementos de la pila, en el orden en que salen, y
+     * le aplica la acción recibida a cada uno.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
+     */
+    @Override public int drena(Consumer<? super T> accion) {
+        int n = 0;
+        while (lista.getLongitud() > 0) {
+            accion.accept(lista.eliminaUltimo());
+            n++;
+        }
+        return n;
+    }
+
     /**
      * Nos permite ver el elemento en el tope de la pila, sin
      * sacarlo de la misma.
@@ -0,0 +1,26 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para pilas de <tt>int</tt>.
+ */
+public class PilaInt extends MeteSacaInt {
+
+    /**
+     * Elimina el elemento en el tope de la pila y lo regresa.
+     * @return el elemento en el tope de la pila.
+     * @throws NoSuchElementException si la pila está vacía.
+     */
+    @Override public int saca() {
+        return lista.eliminaUltimo();
+    }
+
+    /**
+     * Nos permite ver el elemento en el tope de la pila, sin sacarlo
+     * de la misma.
+     * @return el elemento en el tope de la pila.
+     * @throws NoSuchElementException si la pila está vacía.
+     */
+    @Override public int mira() {
+        return lista.getUltimo();
+    }
+}
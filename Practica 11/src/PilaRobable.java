@@ -0,0 +1,224 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * <p>Clase para pilas con robo de trabajo, al estilo de Chase y
+ * Lev.</p>
+ *
+ * <p>Cada pila tiene un hilo dueño, el único que puede llamar {@link
+ * #mete}, {@link #saca} y {@link #mira}; para él la estructura es una
+ * pila común, y sus operaciones no usan candados y casi nunca
+ * compiten con nadie. Cualquier otro hilo puede llamar {@link #roba},
+ * que saca el elemento del <em>fondo</em> de la pila, el más
+ * antiguo. Así, en un recorrido paralelo cada trabajador tiene su
+ * propia pila, y uno que se queda sin trabajo le roba a otro los
+ * vértices que llevan más tiempo esperando, que suelen ser los que
+ * más trabajo representan.</p>
+ *
+ * <p>Los elementos se guardan en un arreglo circular que crece
+ * cuando se llena; el dueño nunca espera a los ladrones. Los
+ * elementos robados pueden seguir referenciados desde el arreglo
+ * hasta que su casilla se vuelva a usar.</p>
+ *
+ * <p>La pila no acepta elementos nulos.</p>
+ */
+public class PilaRobable<T> extends MeteSaca<T> {
+
+    /* Capacidad inicial predeterminada. */
+    private static final int CAPACIDAD_INICIAL = 32;
+
+    /* Índice del elemento más antiguo; lo avanzan los ladrones, y el
+     * dueño cuando saca el último elemento. */
+    private final AtomicLong cima;
+    /* Índice de la siguiente casilla libre; sólo lo escribe el
+     * dueño. */
+    private volatile long fondo;
+    /* Los elementos; el índice k se guarda en la casilla k módulo la
+     * longitud, que siempre es potencia de dos. */
+    private volatile AtomicReferenceArray<T> elementos;
+
+    /**
+     * Construye una pila robable vacía.
+     */
+    public PilaRobable() {
+        cima = new AtomicLong();
+        elementos = new AtomicReferenceArray<T>(CAPACIDAD_INICIAL);
+    }
+
+    /* Regresa la casilla del índice k en el arreglo a. */
+    private static int casilla(AtomicReferenceArray<?> a, long k) {
+        return (int)k & (a.length() - 1);
+    }
+
+    /* Regresa un arreglo del doble de tamaño con los elementos entre
+     * c y f. */
+    private AtomicReferenceArray<T> crece(AtomicReferenceArray<T> a,
+                                          long c, long f) {
+        AtomicReferenceArray<T> b =
+            new AtomicReferenceArray<T>(a.length() * 2);
+        for (long k = c; k < f; k++)
+            b.setPlain(casilla(b, k), a.getPlain(casilla(a, k)));
+        elementos = b;
+        return b;
+    }
+
+    /**
+     * Mete un elemento a la pila. Sólo el dueño puede llamar este
+     * método.
+     * @param elemento el elemento a meter.
+     * @throws NullPointerException si el elemento es nulo.
+     */
+    @Override public void mete(T elemento) {
+        if (elemento == null)
+            throw new NullPointerException();
+        long f = fondo;
+        long c = cima.get();
+        AtomicReferenceArray<T> a = elementos;
+        if (f - c >= a.length())
+            a = crece(a, c, f);
+        a.setRelease(casilla(a, f), elemento);
+        fondo = f + 1;
+    }
+
+    /**
+     * Saca el elemento en el tope de la pila, el último que se metió,
+     * si hay alguno. Sólo el dueño puede llamar este método.
+     * @return el elemento en el tope de la pila, o <tt>null</tt> si
+     *         la pila está vacía o un ladrón se llevó el último
+     *         elemento.
+     */
+    public T intentaSacar() {
+        long f = fondo - 1;
+        AtomicReferenceArray<T> a = elementos;
+        /* La escritura y la lectura siguientes son volátiles, así
+         * que un ladrón no puede ver el fondo viejo y la cima nueva
+         * al mismo tiempo. */
+        fondo = f;
+        long c = cima.get();
+        if (c > f) {
+            fondo = f + 1;
+            return null;
+        }
+        int i = casilla(a, f);
+        T t = a.get(i);
+        if (c == f) {
+            /* Es el último elemento; compite con los ladrones. */
+            if (!cima.compareAndSet(c, c + 1))
+                t = null;
+            fondo = f + 1;
+        }
+        if (t != null)
+            a.setPlain(i, null);
+        return t;
+    }
+
+    /**
+     * Saca el elemento en el tope de la pila y lo regresa. Sólo el
+     * dueño puede llamar este método.
+     * @return el elemento en el tope de la pila.
+     * @throws NoSuchElementException si la pila está vacía.
+     */
+    @Override public T saca() {
+        T t = intentaSacar();
+        if (t == null)
+            throw new NoSuchElementException();
+        return t;
+    }
+
+    /**
+     * Saca hasta <tt>maximo</tt> elementos del tope de la pila y los
+     * guarda en el arreglo, en el orden en que salen. Se detiene en
+     * cuanto la encuentra vacía, aunque los ladrones se lleven
+     * elementos al mismo tiempo, así que nunca lanza {@link
+     * NoSuchElementException}. Sólo el dueño puede llamar este
+     * método.
+     * @param destino el arreglo donde se guardan los elementos.
+     * @param maximo el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si el máximo es negativo.
+     */
+    @Override public int sacaHasta(T[] destino, int maximo) {
+        if (maximo < 0)
+            throw new IllegalArgumentException();
+        maximo = Math.min(maximo, destino.length);
+        int n = 0;
+        T t;
+        while (n < maximo && (t = intentaSacar()) != null)
+            destino[n++] = t;
+        return n;
+    }
+
+    /**
+     * Saca elementos del tope de la pila hasta que la encuentra
+     * vacía, y le aplica la acción recibida a cada uno. Sólo el dueño
+     * puede llamar este método.
+     * @param accion la acción a aplicar a cada elemento.
+     * @return el número de elementos que se sacaron.
+     */
+    @Override public int drena(Consumer<? super T> accion) {
+        int n = 0;
+        T t;
+        while ((t = intentaSacar()) != null) {
+            accion.accept(t);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Nos permite ver el elemento en el tope de la pila, sin sacarlo.
+     * Sólo el dueño puede llamar este método; si hay un solo elemento,
+     * un ladrón puede llevárselo en cualquier momento.
+     * @return el elemento en el tope de la pila.
+     * @throws NoSuchElementException si la pila está vacía.
+     */
+    @Override public T mira() {
+        long f = fondo - 1;
+        AtomicReferenceArray<T> a = elementos;
+        T t = f < cima.get() ? null : a.get(casilla(a, f));
+        if (t == null)
+            throw new NoSuchElementException();
+        return t;
+    }
+
+    /**
+     * Roba el elemento en el fondo de la pila, el más antiguo.
+     * Cualquier hilo puede llamar este método.
+     * @return el elemento en el fondo de la pila, o <tt>null</tt> si
+     *         la pila está vacía o otro hilo se lo llevó primero.
+     */
+    public T roba() {
+        long c = cima.get();
+        long f = fondo;
+        if (c >= f)
+            return null;
+        AtomicReferenceArray<T> a = elementos;
+        T t = a.get(casilla(a, c));
+        if (!cima.compareAndSet(c, c + 1))
+            return null;
+        return t;
+    }
+
+    /**
+     * Nos dice si la pila está vacía. Si otros hilos trabajan con la
+     * pila, el resultado puede cambiar en cuanto el método regresa.
+     * @return <tt>true</tt> si la pila no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return getLongitud() == 0;
+    }
+
+    /**
+     * Regresa el número aproximado de elementos en la pila.
+     * @return el número de elementos en la pila.
+     */
+    public int getLongitud() {
+        long f = fondo;
+        return (int)Math.max(0, f - cima.get());
+    }
+}